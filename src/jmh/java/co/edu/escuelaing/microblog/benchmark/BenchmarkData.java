@@ -0,0 +1,43 @@
+package co.edu.escuelaing.microblog.benchmark;
+
+import co.edu.escuelaing.microblog.seed.DatasetGenerator;
+import org.springframework.context.ApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Datos sintéticos para los benchmarks que consultan la base H2 en memoria
+ */
+final class BenchmarkData {
+
+    static final int USERS = 20;
+    static final int POSTS_PER_STREAM = 5000;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Crea usuarios, un stream y sus posts con una semilla fija, y devuelve el ID del stream
+     */
+    static long seed(ApplicationContext context) {
+        return generate(context).firstStreamId();
+    }
+
+    /**
+     * Igual que seed, pero devuelve los rangos de IDs generados
+     */
+    static DatasetGenerator.Result generate(ApplicationContext context) {
+        try {
+            return new DatasetGenerator(context.getBean(DataSource.class))
+                    .users(USERS)
+                    .streams(1)
+                    .posts(POSTS_PER_STREAM)
+                    .days(30)
+                    .passwordHash("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmar")
+                    .generate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not seed benchmark data", e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package co.edu.escuelaing.microblog.benchmark;
+
+import co.edu.escuelaing.microblog.security.JwtConfig;
+import co.edu.escuelaing.microblog.security.JwtTokenProvider;
+import co.edu.escuelaing.microblog.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emisión y validación de tokens JWT, con y sin la caché de tokens verificados
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtBenchmark {
+
+    private JwtTokenProvider cachedProvider;
+    private JwtTokenProvider uncachedProvider;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedProvider = provider(10000);
+        uncachedProvider = provider(0);
+        principal = new UserPrincipal(42L, "benchmark", null, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = cachedProvider.generateToken(principal);
+        cachedProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedProvider.generateToken(principal);
+    }
+
+    @Benchmark
+    public boolean validateTokenCached() {
+        return cachedProvider.validateToken(token);
+    }
+
+    // Verificación completa de la firma HS512 en cada llamada
+    @Benchmark
+    public boolean validateTokenUncached() {
+        return uncachedProvider.validateToken(token);
+    }
+
+    private static JwtTokenProvider provider(int verifiedCacheSize) {
+        JwtConfig config = new JwtConfig();
+        config.setSecret("jwtsecretkey9876543210abcdefghijklmnopqrstuvwxyzJWTSUPERSECRETKEY");
+        config.setExpirationMs(86400000L);
+
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtConfig", config);
+        ReflectionTestUtils.setField(provider, "verifiedCacheSize", verifiedCacheSize);
+        return provider;
+    }
+}
@@ -0,0 +1,95 @@
+package co.edu.escuelaing.microblog.benchmark;
+
+import co.edu.escuelaing.microblog.handler.LambdaApplicationContext;
+import co.edu.escuelaing.microblog.handler.PostServiceHandler;
+import co.edu.escuelaing.microblog.handler.StreamServiceHandler;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * handleRequest de los handlers de Lambda con eventos sintéticos de API Gateway,
+ * incluido el requestContext que envía el proxy real aunque los handlers no lo usen
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LambdaHandlerBenchmark {
+
+    private PostServiceHandler postHandler;
+    private StreamServiceHandler streamHandler;
+    private byte[] postsByStreamEvent;
+    private byte[] streamByIdEvent;
+    private byte[] preflightEvent;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream(8192);
+
+    @Setup
+    public void setUp() {
+        long streamId = BenchmarkData.seed(LambdaApplicationContext.getContext());
+        postHandler = new PostServiceHandler();
+        streamHandler = new StreamServiceHandler();
+
+        postsByStreamEvent = event("GET", "/api/posts/stream/" + streamId, "{\"page\":\"0\",\"size\":\"20\"}");
+        streamByIdEvent = event("GET", "/api/streams/" + streamId, "null");
+        preflightEvent = event("OPTIONS", "/api/posts", "null");
+    }
+
+    @TearDown
+    public void tearDown() {
+        LambdaApplicationContext.getContext().close();
+    }
+
+    @Benchmark
+    public int postsByStream() throws IOException {
+        return invoke(postHandler, postsByStreamEvent);
+    }
+
+    @Benchmark
+    public int streamById() throws IOException {
+        return invoke(streamHandler, streamByIdEvent);
+    }
+
+    // Solo lectura del evento y escritura de la respuesta, sin llegar a los servicios
+    @Benchmark
+    public int preflight() throws IOException {
+        return invoke(postHandler, preflightEvent);
+    }
+
+    private int invoke(RequestStreamHandler handler, byte[] event) throws IOException {
+        output.reset();
+        handler.handleRequest(new ByteArrayInputStream(event), output, null);
+        return output.size();
+    }
+
+    private static byte[] event(String method, String path, String queryStringParameters) {
+        String json = "{\"resource\":\"/{proxy+}\",\"path\":\"" + path + "\",\"httpMethod\":\"" + method + "\","
+                + "\"headers\":{\"Accept\":\"application/json\",\"Host\":\"api.example.com\","
+                + "\"User-Agent\":\"jmh\",\"X-Forwarded-For\":\"10.0.0.1\",\"X-Forwarded-Proto\":\"https\"},"
+                + "\"multiValueHeaders\":{\"Accept\":[\"application/json\"],\"Host\":[\"api.example.com\"]},"
+                + "\"queryStringParameters\":" + queryStringParameters + ","
+                + "\"pathParameters\":{\"proxy\":\"" + path.substring(1) + "\"},\"stageVariables\":null,"
+                + "\"requestContext\":{\"accountId\":\"123456789012\",\"resourceId\":\"abc123\",\"stage\":\"prod\","
+                + "\"requestId\":\"c6af9ac6-7b61-11e6-9a41-93e8deadbeef\",\"httpMethod\":\"" + method + "\","
+                + "\"identity\":{\"sourceIp\":\"10.0.0.1\",\"userAgent\":\"jmh\"},\"path\":\"/prod" + path + "\"},"
+                + "\"body\":null,\"isBase64Encoded\":false}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package co.edu.escuelaing.microblog.benchmark;
+
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.exception.TooManyRequestsException;
+import co.edu.escuelaing.microblog.handler.LambdaApplicationContext;
+import co.edu.escuelaing.microblog.ingest.PostWriteBehind;
+import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.seed.DatasetGenerator;
+import co.edu.escuelaing.microblog.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts creados por milisegundo con PostService.createPost (una transacción por post)
+ * frente a la ingesta asíncrona de PostWriteBehind, con varios productores a la vez.
+ *
+ * Cuando el buffer se llena submitWriteBehind reintenta, así que en régimen estable mide
+ * lo que el hilo escritor consigue confirmar y no solo el coste de encolar. Al terminar cada
+ * iteración pueden quedar en el buffer hasta su capacidad en posts sin escribir.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PostIngestBenchmark {
+
+    private static final String CONTENT = "Benchmark post with a typical length for the microblog, well under the limit";
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private PostWriteBehind writeBehind;
+    private long userId;
+    private long streamId;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("app.posts.write-behind.enabled", "true");
+        context = LambdaApplicationContext.getContext();
+        postService = context.getBean(PostService.class);
+        // Con el perfil lambda los beans son perezosos y el ciclo de vida no arranca el escritor
+        writeBehind = context.getBean(PostWriteBehind.class);
+        writeBehind.start();
+        DatasetGenerator.Result data = BenchmarkData.generate(context);
+        userId = data.firstUserId();
+        streamId = data.firstStreamId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        writeBehind.stop();
+        context.close();
+    }
+
+    @Benchmark
+    public Post createPost() {
+        Post post = new Post();
+        post.setContent(CONTENT);
+        return postService.createPost(post, userId, streamId);
+    }
+
+    @Benchmark
+    public PostSummary submitWriteBehind() {
+        while (true) {
+            try {
+                return writeBehind.submit(CONTENT, userId, streamId);
+            } catch (TooManyRequestsException e) {
+                Thread.yield();
+            }
+        }
+    }
+}
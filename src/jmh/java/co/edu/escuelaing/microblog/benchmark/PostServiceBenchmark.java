@@ -0,0 +1,64 @@
+package co.edu.escuelaing.microblog.benchmark;
+
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.handler.LambdaApplicationContext;
+import co.edu.escuelaing.microblog.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostService.getPostsByStream contra una base H2 en memoria con un stream sembrado.
+ *
+ * Usa el contexto sin servidor web de los handlers de Lambda; la página profunda mide
+ * el coste del OFFSET frente a la primera.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PostServiceBenchmark {
+
+    @Param({"0", "200"})
+    private int page;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private Long streamId;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        context = LambdaApplicationContext.getContext();
+        postService = context.getBean(PostService.class);
+        streamId = BenchmarkData.seed(context);
+        pageable = PageRequest.of(page, 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<PostSummary> getPostsByStream() {
+        return postService.getPostsByStream(streamId, pageable);
+    }
+}
@@ -0,0 +1,94 @@
+package co.edu.escuelaing.microblog.benchmark;
+
+import co.edu.escuelaing.microblog.dto.CursorPage;
+import co.edu.escuelaing.microblog.dto.FeedCursor;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de un Post, de una Page de posts y de una página del feed por cursor
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    // Misma configuración que el ObjectMapper que crea Spring Boot
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Post post;
+    private Page<Post> page;
+    private CursorPage<PostSummary> cursorPage;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        Stream stream = new Stream();
+        stream.setId(1L);
+        stream.setName("benchmark");
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Post> posts = new ArrayList<>(pageSize);
+        List<PostSummary> summaries = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Post p = new Post();
+            p.setId((long) i + 1);
+            p.setContent("Post de benchmark número " + i + " con un texto de longitud típica para un microblog");
+            p.setUser(user);
+            p.setStream(stream);
+            p.setCreatedAt(now.minusSeconds(i));
+            posts.add(p);
+            summaries.add(PostSummary.of(p));
+        }
+
+        post = posts.get(0);
+        page = new PageImpl<>(posts, PageRequest.of(0, pageSize), 5000);
+        cursorPage = new CursorPage<>(summaries, FeedCursor.of(summaries.get(pageSize - 1)).encode(), true);
+    }
+
+    @Benchmark
+    public byte[] post() throws Exception {
+        return objectMapper.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public byte[] page() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cursorPage() throws Exception {
+        return objectMapper.writeValueAsBytes(cursorPage);
+    }
+}
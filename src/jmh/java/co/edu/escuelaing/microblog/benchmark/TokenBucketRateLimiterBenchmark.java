@@ -0,0 +1,56 @@
+package co.edu.escuelaing.microblog.benchmark;
+
+import co.edu.escuelaing.microblog.ratelimit.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limitador de tasa con 32 hilos: cada hilo con su propia clave, y todos sobre la misma
+ * clave, que es el peor caso de contención sobre un solo bucket
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(32)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenBucketRateLimiterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+        final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(20, 0.5, 65536);
+        final long sharedKey = TokenBucketRateLimiter.keyOf("shared");
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        long key;
+
+        @Setup
+        public void setUp() {
+            key = TokenBucketRateLimiter.keyOf("user-" + ThreadLocalRandom.current().nextLong());
+        }
+    }
+
+    @Benchmark
+    public long distinctKeys(Limiter state, Client client) {
+        return state.limiter.tryAcquire(client.key);
+    }
+
+    @Benchmark
+    public long sharedKey(Limiter state) {
+        return state.limiter.tryAcquire(state.sharedKey);
+    }
+}
@@ -1,13 +1,33 @@
 package co.edu.escuelaing.microblog.controller;
 
+import co.edu.escuelaing.microblog.dto.BulkImportResponse;
+import co.edu.escuelaing.microblog.dto.CursorPage;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.dto.SliceResponse;
+import co.edu.escuelaing.microblog.ingest.PostWriteBehind;
 import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.ratelimit.RateLimited;
+import co.edu.escuelaing.microblog.service.PostBulkImporter;
+import co.edu.escuelaing.microblog.service.PostExporter;
 import co.edu.escuelaing.microblog.service.PostService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -16,14 +36,32 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private PostBulkImporter postBulkImporter;
+
+    @Autowired
+    private PostExporter postExporter;
+
+    @Autowired
+    private PostWriteBehind postWriteBehind;
+
     /**
      * Obtiene todos los posts con paginación
      */
     @GetMapping
-    public Page<Post> getAllPosts(Pageable pageable) {
+    public Page<PostSummary> getAllPosts(Pageable pageable) {
         return postService.getAllPosts(pageable);
     }
 
+    /**
+     * Obtiene todos los posts sin conteo total (scroll infinito)
+     */
+    @GetMapping("/slice")
+    public SliceResponse<PostSummary> getAllPostsSlice(Pageable pageable,
+                                                       @RequestParam(defaultValue = "false") boolean withTotal) {
+        return postService.getAllPostsSlice(pageable, withTotal);
+    }
+
     /**
      * Obtiene un post específico por su ID
      */
@@ -36,26 +74,123 @@ public class PostController {
      * Obtiene posts por stream con paginación
      */
     @GetMapping("/stream/{streamId}")
-    public Page<Post> getPostsByStream(@PathVariable Long streamId, Pageable pageable) {
+    public Page<PostSummary> getPostsByStream(@PathVariable Long streamId, Pageable pageable) {
         return postService.getPostsByStream(streamId, pageable);
     }
 
+    /**
+     * Obtiene posts por stream sin conteo total (scroll infinito)
+     */
+    @GetMapping("/stream/{streamId}/slice")
+    public SliceResponse<PostSummary> getPostsByStreamSlice(@PathVariable Long streamId, Pageable pageable,
+                                                            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return postService.getPostsByStreamSlice(streamId, pageable, withTotal);
+    }
+
     /**
      * Obtiene posts por usuario con paginación
      */
     @GetMapping("/user/{userId}")
-    public Page<Post> getPostsByUser(@PathVariable Long userId, Pageable pageable) {
+    public Page<PostSummary> getPostsByUser(@PathVariable Long userId, Pageable pageable) {
         return postService.getPostsByUser(userId, pageable);
     }
 
     /**
-     * Crea un nuevo post
+     * Obtiene posts por usuario sin conteo total (scroll infinito)
+     */
+    @GetMapping("/user/{userId}/slice")
+    public SliceResponse<PostSummary> getPostsByUserSlice(@PathVariable Long userId, Pageable pageable,
+                                                          @RequestParam(defaultValue = "false") boolean withTotal) {
+        return postService.getPostsByUserSlice(userId, pageable, withTotal);
+    }
+
+    /**
+     * Obtiene el feed de un stream paginado por cursor
+     */
+    @GetMapping("/stream/{streamId}/feed")
+    public CursorPage<PostSummary> getFeedByStream(@PathVariable Long streamId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "10") int size) {
+        return postService.getFeedByStream(streamId, cursor, size);
+    }
+
+    /**
+     * Obtiene el feed de un usuario paginado por cursor
+     */
+    @GetMapping("/user/{userId}/feed")
+    public CursorPage<PostSummary> getFeedByUser(@PathVariable Long userId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "10") int size) {
+        return postService.getFeedByUser(userId, cursor, size);
+    }
+
+    /**
+     * Obtiene los posts de un stream posteriores al cursor. Responde 304 si el
+     * cliente ya tiene el estado actual del stream (If-None-Match)
+     */
+    @GetMapping("/stream/{streamId}/since/{cursor}")
+    public ResponseEntity<CursorPage<PostSummary>> getPostsSince(@PathVariable Long streamId,
+                                                             @PathVariable String cursor,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             WebRequest request) {
+        // checkNotModified compara la lista de If-None-Match (débil) y escribe el ETag y el 304
+        if (request.checkNotModified(postService.getStreamETag(streamId))) {
+            return null;
+        }
+        // Spring solo acepta * en métodos no seguros; en un GET coincide con cualquier estado actual
+        if (hasWildcard(request.getHeaderValues(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(postService.getPostsSince(streamId, cursor, size));
+    }
+
+    /**
+     * Exporta los posts de un stream como NDJSON, del más antiguo al más reciente.
+     * El rango [from, to) es opcional; sin to se exporta hasta el momento de la petición.
+     */
+    @GetMapping(value = "/stream/{streamId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts(@PathVariable Long streamId,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                             HttpServletRequest request) {
+        StreamingResponseBody body = postExporter.export(streamId, from, to);
+        AsyncTimeoutConfig.setTimeout(request, postExporter.getTimeoutMs());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("stream-" + streamId + "-posts.ndjson").build().toString())
+                .body(body);
+    }
+
+    /**
+     * Crea un nuevo post. Si el cliente envía Prefer: respond-async y la ingesta asíncrona
+     * está activada, responde 202 con el ID ya asignado sin esperar a escribirlo.
      */
     @PostMapping("/user/{userId}/stream/{streamId}")
-    public Post createPost(@Valid @RequestBody Post post,
-                           @PathVariable Long userId,
-                           @PathVariable Long streamId) {
-        return postService.createPost(post, userId, streamId);
+    @RateLimited(value = "posts-create", capacity = 20, refillPerSecond = 0.5)
+    public ResponseEntity<?> createPost(@Valid @RequestBody Post post,
+                                        @PathVariable Long userId,
+                                        @PathVariable Long streamId,
+                                        @RequestHeader(value = "Prefer", required = false) String prefer) {
+        if (!postWriteBehind.isEnabled() || !prefersRespondAsync(prefer)) {
+            return ResponseEntity.ok(postService.createPost(post, userId, streamId));
+        }
+        PostSummary accepted = postWriteBehind.submit(post.getContent(), userId, streamId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/posts/" + accepted.getId()))
+                .header("Preference-Applied", "respond-async")
+                .body(accepted);
+    }
+
+    /**
+     * Crea varios posts en una sola petición, desde NDJSON (un post por línea) o un array JSON.
+     * Cada post indica su userId y streamId; la respuesta trae el resultado de cada uno.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @RateLimited(value = "posts-bulk", capacity = 5, refillPerSecond = 0.5)
+    public BulkImportResponse importPosts(InputStream body) throws IOException {
+        return postBulkImporter.importPosts(body);
     }
 
     /**
@@ -74,4 +209,31 @@ public class PostController {
         postService.deletePost(id);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+
+    private static boolean hasWildcard(String[] ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            for (String value : ifNoneMatch) {
+                for (String tag : value.split(",")) {
+                    if (tag.trim().equals("*")) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // Prefer es una lista de preferencias separadas por comas, cada una con parámetros
+    // opcionales (RFC 7240): "respond-async, wait=5" también pide la respuesta asíncrona
+    private static boolean prefersRespondAsync(String prefer) {
+        if (prefer != null) {
+            for (String preference : prefer.split(",")) {
+                String token = preference.split("[=;]", 2)[0].trim();
+                if (token.equalsIgnoreCase("respond-async")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package co.edu.escuelaing.microblog.controller;
+
+import co.edu.escuelaing.microblog.dto.PurgeProgress;
+import co.edu.escuelaing.microblog.dto.PurgeProgress.Target;
+import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
+import co.edu.escuelaing.microblog.service.PurgeJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/purges")
+public class PurgeController {
+
+    @Autowired
+    private PurgeJob purgeJob;
+
+    /**
+     * Obtiene las purgas en curso y las últimas terminadas
+     */
+    @GetMapping
+    public List<PurgeProgress> getPurges() {
+        return purgeJob.getPurges();
+    }
+
+    /**
+     * Obtiene el avance de la purga de un stream eliminado
+     */
+    @GetMapping("/stream/{id}")
+    public PurgeProgress getStreamPurge(@PathVariable Long id) {
+        return progress(Target.STREAM, id);
+    }
+
+    /**
+     * Obtiene el avance de la purga de un usuario eliminado
+     */
+    @GetMapping("/user/{id}")
+    public PurgeProgress getUserPurge(@PathVariable Long id) {
+        return progress(Target.USER, id);
+    }
+
+    private PurgeProgress progress(Target target, Long id) {
+        PurgeProgress progress = purgeJob.getProgress(target, id);
+        if (progress == null) {
+            throw new ResourceNotFoundException("Purge", target.name().toLowerCase(), id);
+        }
+        return progress;
+    }
+}
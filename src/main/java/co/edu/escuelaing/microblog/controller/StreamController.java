@@ -1,11 +1,15 @@
 package co.edu.escuelaing.microblog.controller;
 
 import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.service.LiveFeedBroadcaster;
 import co.edu.escuelaing.microblog.service.StreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -15,6 +19,9 @@ public class StreamController {
     @Autowired
     private StreamService streamService;
 
+    @Autowired
+    private LiveFeedBroadcaster liveFeedBroadcaster;
+
     /**
      * Obtiene todos los streams
      */
@@ -39,6 +46,18 @@ public class StreamController {
         return streamService.getStreamByName(name);
     }
 
+    /**
+     * Suscribe al cliente a los posts nuevos del stream mediante Server-Sent Events. Al
+     * reconectar, Last-Event-ID trae el cursor del último post recibido y se reenvían los
+     * publicados desde entonces
+     */
+    @GetMapping(path = "/{id}/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToStream(@PathVariable Long id,
+                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        streamService.getStreamById(id);
+        return liveFeedBroadcaster.subscribe(id, lastEventId);
+    }
+
     /**
      * Crea un nuevo stream
      */
@@ -56,11 +75,12 @@ public class StreamController {
     }
 
     /**
-     * Elimina un stream existente
+     * Elimina un stream existente. Responde 202: sus posts se purgan en segundo plano
+     * y el avance se consulta en la URL de Location
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteStream(@PathVariable Long id) {
         streamService.deleteStream(id);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().location(URI.create("/api/purges/stream/" + id)).build();
     }
 }
\ No newline at end of file
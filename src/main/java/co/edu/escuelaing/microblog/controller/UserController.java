@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -56,11 +57,12 @@ public class UserController {
     }
 
     /**
-     * Elimina un usuario existente
+     * Elimina un usuario existente. Responde 202: sus posts se purgan en segundo plano
+     * y el avance se consulta en la URL de Location
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.accepted().location(URI.create("/api/purges/user/" + id)).build();
     }
 }
\ No newline at end of file
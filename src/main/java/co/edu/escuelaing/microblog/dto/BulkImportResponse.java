@@ -0,0 +1,33 @@
+package co.edu.escuelaing.microblog.dto;
+
+import java.util.List;
+
+public class BulkImportResponse {
+    private final int created;
+    private final int failed;
+    private final List<BulkPostResult> results;
+
+    public BulkImportResponse(List<BulkPostResult> results) {
+        int ok = 0;
+        for (BulkPostResult result : results) {
+            if (result.isCreated()) {
+                ok++;
+            }
+        }
+        this.created = ok;
+        this.failed = results.size() - ok;
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BulkPostResult> getResults() {
+        return results;
+    }
+}
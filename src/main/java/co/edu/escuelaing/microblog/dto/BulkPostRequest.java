@@ -0,0 +1,55 @@
+package co.edu.escuelaing.microblog.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un post de una importación masiva. createdAt es opcional y permite conservar la fecha
+ * original al migrar desde otro sistema; si falta se usa el momento de la importación.
+ */
+public class BulkPostRequest {
+    private Long userId;
+    private Long streamId;
+    private String content;
+    private LocalDateTime createdAt;
+
+    public BulkPostRequest() {
+    }
+
+    public BulkPostRequest(Long userId, Long streamId, String content) {
+        this.userId = userId;
+        this.streamId = streamId;
+        this.content = content;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getStreamId() {
+        return streamId;
+    }
+
+    public void setStreamId(Long streamId) {
+        this.streamId = streamId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,46 @@
+package co.edu.escuelaing.microblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Resultado de un elemento de la importación: el ID asignado o el motivo del rechazo.
+ * index es la posición del elemento en la petición, empezando en 0.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkPostResult {
+    private final int index;
+    private final Long id;
+    private final String error;
+
+    private BulkPostResult(int index, Long id, String error) {
+        this.index = index;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BulkPostResult created(int index, long id) {
+        return new BulkPostResult(index, id, null);
+    }
+
+    public static BulkPostResult failed(int index, String error) {
+        return new BulkPostResult(index, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public boolean isCreated() {
+        return id != null;
+    }
+}
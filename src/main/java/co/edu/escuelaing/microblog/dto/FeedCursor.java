@@ -0,0 +1,76 @@
+package co.edu.escuelaing.microblog.dto;
+
+import co.edu.escuelaing.microblog.exception.BadRequestException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para paginación por keyset. Codifica la posición (createdAt, id)
+ * del último post entregado, de modo que la siguiente página se obtiene con un
+ * rango sobre el índice en lugar de un OFFSET.
+ */
+public final class FeedCursor implements Comparable<FeedCursor> {
+    private static final int ENCODED_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    // Posición anterior a cualquier post; es la marca de agua de un stream vacío
+    public static final FeedCursor ORIGIN = new FeedCursor(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), 0L);
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public FeedCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public static FeedCursor of(PostSummary post) {
+        return new FeedCursor(post.getCreatedAt(), post.getId());
+    }
+
+    @Override
+    public int compareTo(FeedCursor other) {
+        int byTime = createdAt.compareTo(other.createdAt);
+        return byTime != 0 ? byTime : Long.compare(id, other.id);
+    }
+
+    /**
+     * Codifica el cursor como texto base64 seguro para URLs
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES);
+        buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(createdAt.getNano());
+        buffer.putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente
+     */
+    public static FeedCursor decode(String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != ENCODED_BYTES) {
+                throw new BadRequestException("Invalid feed cursor");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long seconds = buffer.getLong();
+            int nanos = buffer.getInt();
+            long id = buffer.getLong();
+            return new FeedCursor(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC), id);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new BadRequestException("Invalid feed cursor", ex);
+        }
+    }
+}
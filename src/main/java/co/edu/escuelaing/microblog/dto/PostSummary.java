@@ -0,0 +1,73 @@
+package co.edu.escuelaing.microblog.dto;
+
+import co.edu.escuelaing.microblog.model.Post;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de lectura de un post con los datos del autor y del stream ya resueltos.
+ * Se construye directamente desde JPQL para que serializar un feed no dispare
+ * cargas perezosas de User y Stream.
+ */
+public class PostSummary {
+    private Long id;
+    private String content;
+    private LocalDateTime createdAt;
+    private Long userId;
+    private String username;
+    private Long streamId;
+    private String streamName;
+
+    public PostSummary(Long id, String content, LocalDateTime createdAt,
+                       Long userId, String username, Long streamId, String streamName) {
+        this.id = id;
+        this.content = content;
+        this.createdAt = createdAt;
+        this.userId = userId;
+        this.username = username;
+        this.streamId = streamId;
+        this.streamName = streamName;
+    }
+
+    /**
+     * Construye la proyección a partir de una entidad cuyo usuario y stream ya están cargados
+     */
+    public static PostSummary of(Post post) {
+        return new PostSummary(post.getId(), post.getContent(), post.getCreatedAt(),
+                post.getUserId(), post.getUsername(), post.getStreamId(), post.getStreamName());
+    }
+
+    /**
+     * Devuelve una copia con el contenido reemplazado
+     */
+    public PostSummary withContent(String newContent) {
+        return new PostSummary(id, newContent, createdAt, userId, username, streamId, streamName);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getStreamId() {
+        return streamId;
+    }
+
+    public String getStreamName() {
+        return streamName;
+    }
+}
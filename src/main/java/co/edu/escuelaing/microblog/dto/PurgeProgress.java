@@ -0,0 +1,110 @@
+package co.edu.escuelaing.microblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de la purga de un stream o usuario borrado. Solo lo modifica el hilo de PurgeJob;
+ * los campos son volatile para que las peticiones lean el avance sin bloquearlo.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PurgeProgress {
+
+    public enum Target {
+        STREAM,
+        USER
+    }
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private final Target target;
+    private final Long id;
+    private final LocalDateTime requestedAt;
+    private volatile State state = State.PENDING;
+    private volatile long postsTotal;
+    private volatile long postsDeleted;
+    private volatile int chunks;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public PurgeProgress(Target target, Long id) {
+        this.target = target;
+        this.id = id;
+        this.requestedAt = LocalDateTime.now();
+    }
+
+    public void started(long postsTotal) {
+        this.postsTotal = postsTotal;
+        this.startedAt = LocalDateTime.now();
+        this.state = State.RUNNING;
+    }
+
+    public void chunkDeleted(int posts) {
+        postsDeleted += posts;
+        chunks++;
+    }
+
+    public void finished() {
+        finishedAt = LocalDateTime.now();
+        state = State.DONE;
+    }
+
+    public void failed(String error) {
+        this.error = error;
+        finishedAt = LocalDateTime.now();
+        state = State.FAILED;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return state == State.DONE || state == State.FAILED;
+    }
+
+    public Target getTarget() {
+        return target;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getPostsTotal() {
+        return postsTotal;
+    }
+
+    public long getPostsDeleted() {
+        return postsDeleted;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
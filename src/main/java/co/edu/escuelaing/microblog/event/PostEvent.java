@@ -0,0 +1,44 @@
+package co.edu.escuelaing.microblog.event;
+
+import co.edu.escuelaing.microblog.dto.PostSummary;
+
+/**
+ * Evento publicado por PostService cuando un post se crea, actualiza o elimina.
+ * Los listeners lo reciben después del commit de la transacción.
+ */
+public class PostEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final PostSummary post;
+
+    public PostEvent(Type type, PostSummary post) {
+        this.type = type;
+        this.post = post;
+    }
+
+    public static PostEvent created(PostSummary post) {
+        return new PostEvent(Type.CREATED, post);
+    }
+
+    public static PostEvent updated(PostSummary post) {
+        return new PostEvent(Type.UPDATED, post);
+    }
+
+    public static PostEvent deleted(PostSummary post) {
+        return new PostEvent(Type.DELETED, post);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public PostSummary getPost() {
+        return post;
+    }
+}
@@ -0,0 +1,16 @@
+package co.edu.escuelaing.microblog.event;
+
+/**
+ * Evento publicado cuando se elimina un stream; sus posts se purgan después en segundo plano
+ */
+public class StreamDeletedEvent {
+    private final Long streamId;
+
+    public StreamDeletedEvent(Long streamId) {
+        this.streamId = streamId;
+    }
+
+    public Long getStreamId() {
+        return streamId;
+    }
+}
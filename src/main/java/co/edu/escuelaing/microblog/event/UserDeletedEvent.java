@@ -0,0 +1,16 @@
+package co.edu.escuelaing.microblog.event;
+
+/**
+ * Evento publicado cuando se elimina un usuario; sus posts se purgan después en segundo plano
+ */
+public class UserDeletedEvent {
+    private final Long userId;
+
+    public UserDeletedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,147 @@
+package co.edu.escuelaing.microblog.handler;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Lectura y escritura en streaming del formato proxy de API Gateway.
+ *
+ * El evento se recorre con el parser de Jackson directamente sobre el InputStream,
+ * llenando un ApiGatewayEvent reutilizable y saltando sin materializar los campos que
+ * no se usan (requestContext, multiValueHeaders...). La respuesta se genera token a
+ * token sobre el OutputStream, con las cabeceras CORS ya serializadas; solo el cuerpo,
+ * que API Gateway exige como texto, pasa por un String intermedio.
+ */
+public class ApiGatewayCodec {
+
+    private static final SerializableString STATUS_CODE = new SerializedString("statusCode");
+    private static final SerializableString HEADERS = new SerializedString("headers");
+    private static final SerializableString BODY = new SerializedString("body");
+
+    // Cabeceras comunes a todas las respuestas; una cabecera del handler con el mismo nombre las reemplaza
+    private static final SerializedString[][] CONSTANT_HEADERS = {
+            {new SerializedString("Content-Type"), new SerializedString("application/json")},
+            {new SerializedString("Access-Control-Allow-Origin"), new SerializedString("*")},
+            {new SerializedString("Access-Control-Allow-Methods"), new SerializedString("GET, POST, PUT, DELETE, OPTIONS")},
+            {new SerializedString("Access-Control-Allow-Headers"), new SerializedString("Content-Type, Authorization, If-None-Match")},
+            {new SerializedString("Access-Control-Expose-Headers"), new SerializedString("ETag, Retry-After, X-RateLimit-Limit, X-RateLimit-Remaining")}
+    };
+
+    private final JsonFactory jsonFactory;
+    private final ObjectWriter bodyWriter;
+
+    public ApiGatewayCodec(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.bodyWriter = objectMapper.writer();
+    }
+
+    /**
+     * Llena el evento con la petición leída del stream
+     */
+    public void readEvent(InputStream inputStream, ApiGatewayEvent event) throws IOException {
+        event.reset();
+        try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "API Gateway event must be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "httpMethod" -> event.setHttpMethod(text(parser, value, ""));
+                    case "path" -> event.setPath(text(parser, value, ""));
+                    case "body" -> event.setBody(text(parser, value, null));
+                    case "isBase64Encoded" -> event.setBase64Encoded(value == JsonToken.VALUE_TRUE);
+                    case "headers" -> readStringMap(parser, value, event.getHeaders());
+                    case "queryStringParameters" -> readStringMap(parser, value, event.getQueryStringParameters());
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        if (event.isBase64Encoded() && event.getBody() != null) {
+            event.setBody(new String(Base64.getDecoder().decode(event.getBody()), StandardCharsets.UTF_8));
+            event.setBase64Encoded(false);
+        }
+    }
+
+    /**
+     * Escribe la respuesta de Lambda directamente en el stream
+     */
+    public void writeResponse(OutputStream outputStream, ApiGatewayResponse response) throws IOException {
+        writeResponse(outputStream, response, writeBody(response));
+    }
+
+    /**
+     * Serializa el cuerpo de la respuesta al texto que exige API Gateway
+     */
+    public String writeBody(ApiGatewayResponse response) throws IOException {
+        return response.getBody() == null ? "" : bodyWriter.writeValueAsString(response.getBody());
+    }
+
+    /**
+     * Escribe la respuesta con un cuerpo ya serializado, para poder añadir cabeceras
+     * que dependen de la serialización
+     */
+    public void writeResponse(OutputStream outputStream, ApiGatewayResponse response, String body) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeFieldName(STATUS_CODE);
+            generator.writeNumber(response.getStatusCode());
+
+            generator.writeFieldName(HEADERS);
+            generator.writeStartObject();
+            Map<String, String> headers = response.getHeaders();
+            for (SerializedString[] header : CONSTANT_HEADERS) {
+                if (!headers.containsKey(header[0].getValue())) {
+                    generator.writeFieldName(header[0]);
+                    generator.writeString(header[1]);
+                }
+            }
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                generator.writeStringField(header.getKey(), header.getValue());
+            }
+            generator.writeEndObject();
+
+            generator.writeFieldName(BODY);
+            generator.writeString(body);
+            generator.writeEndObject();
+        }
+    }
+
+    private static String text(JsonParser parser, JsonToken value, String defaultValue) throws IOException {
+        return value == JsonToken.VALUE_NULL ? defaultValue : parser.getValueAsString(defaultValue);
+    }
+
+    // API Gateway envía null en lugar de un objeto vacío cuando no hay cabeceras o parámetros
+    private static void readStringMap(JsonParser parser, JsonToken value, Map<String, String> target) throws IOException {
+        if (value != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token.isScalarValue()) {
+                target.put(name, token == JsonToken.VALUE_NULL ? null : parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package co.edu.escuelaing.microblog.handler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Campos del evento proxy de API Gateway que usan los handlers.
+ *
+ * Es mutable para poder reutilizar una instancia entre invocaciones: ApiGatewayCodec
+ * la limpia y la vuelve a llenar en cada petición.
+ */
+public class ApiGatewayEvent {
+    private String httpMethod;
+    private String path;
+    private String body;
+    private boolean base64Encoded;
+    private final Map<String, String> headers = new HashMap<>();
+    private final Map<String, String> queryStringParameters = new HashMap<>();
+
+    public void reset() {
+        httpMethod = "";
+        path = "";
+        body = null;
+        base64Encoded = false;
+        headers.clear();
+        queryStringParameters.clear();
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public void setHttpMethod(String httpMethod) {
+        this.httpMethod = httpMethod;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public boolean isBase64Encoded() {
+        return base64Encoded;
+    }
+
+    public void setBase64Encoded(boolean base64Encoded) {
+        this.base64Encoded = base64Encoded;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public Map<String, String> getQueryStringParameters() {
+        return queryStringParameters;
+    }
+}
@@ -0,0 +1,162 @@
+package co.edu.escuelaing.microblog.handler;
+
+import co.edu.escuelaing.microblog.dto.ApiResponse;
+import co.edu.escuelaing.microblog.exception.BadRequestException;
+import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
+import co.edu.escuelaing.microblog.exception.ServiceUnavailableException;
+import co.edu.escuelaing.microblog.exception.TooManyRequestsException;
+import co.edu.escuelaing.microblog.metrics.QueryStats;
+import co.edu.escuelaing.microblog.metrics.QueryStatsReporter;
+import co.edu.escuelaing.microblog.metrics.RequestTiming;
+import co.edu.escuelaing.microblog.metrics.RequestTimingReporter;
+import co.edu.escuelaing.microblog.security.JwtTokenProvider;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base de los handlers de API Gateway: lee el evento en streaming, resuelve la ruta en
+ * la tabla precompilada del handler y escribe la respuesta de Lambda con ApiGatewayCodec.
+ * Cada invocación se mide en lambda.requests, etiquetada con la plantilla de la ruta,
+ * y su desglose por fases (auth, service, db, serialization) va en la cabecera Server-Timing.
+ * Las excepciones de los servicios se traducen aquí a los mismos códigos que devuelve
+ * GlobalExceptionHandler en el servidor (400, 404, 429, 503).
+ */
+public abstract class ApiGatewayHandler implements RequestStreamHandler {
+
+    // Beans del contexto compartido, resueltos durante la inicialización de Lambda
+    protected static final ObjectMapper objectMapper = LambdaApplicationContext.getBean(ObjectMapper.class);
+    protected static final JwtTokenProvider tokenProvider = LambdaApplicationContext.getBean(JwtTokenProvider.class);
+
+    protected static final MeterRegistry meterRegistry = LambdaApplicationContext.getBean(MeterRegistry.class);
+    protected static final QueryStatsReporter queryStatsReporter = LambdaApplicationContext.getBean(QueryStatsReporter.class);
+    protected static final RequestTimingReporter timingReporter = LambdaApplicationContext.getBean(RequestTimingReporter.class);
+
+    private static final ApiGatewayCodec codec = new ApiGatewayCodec(objectMapper);
+
+    // Etiquetas de las invocaciones que no llegan a una ruta registrada
+    private static final String PREFLIGHT_ROUTE = "PREFLIGHT";
+    private static final String NOT_FOUND_ROUTE = "NOT_FOUND";
+
+    // Lambda procesa una invocación a la vez por instancia, así que el evento se reutiliza
+    private static final ThreadLocal<ApiGatewayEvent> events = ThreadLocal.withInitial(ApiGatewayEvent::new);
+
+    /**
+     * Handler de una ruta concreta
+     */
+    @FunctionalInterface
+    protected interface Route {
+        ApiGatewayResponse handle(ApiGatewayRequest request) throws Exception;
+    }
+
+    /**
+     * Tabla de rutas del handler, construida una sola vez
+     */
+    protected abstract LambdaRouter<Route> routes();
+
+    @Override
+    public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context) throws IOException {
+        // Leer el evento entrante sobre la instancia reutilizable del hilo
+        ApiGatewayEvent event = events.get();
+        codec.readEvent(inputStream, event);
+
+        long start = System.nanoTime();
+        String route = NOT_FOUND_ROUTE;
+        RequestTiming timing = timingReporter.isEnabled() ? RequestTiming.start() : null;
+        ApiGatewayResponse response;
+        String body;
+        // Los ámbitos por hilo se cierran aunque escape un Error: el hilo de Lambda se reutiliza
+        try {
+            QueryStats stats = QueryStats.start();
+            if (timing != null) {
+                timing.handlerStarted();
+            }
+            try {
+                // Manejar método OPTIONS para CORS preflight
+                if (event.getHttpMethod().equals("OPTIONS")) {
+                    route = PREFLIGHT_ROUTE;
+                    response = ApiGatewayResponse.ok(null);
+                } else {
+                    LambdaRouter.Match<Route> match = routes().match(event.getHttpMethod(), event.getPath());
+                    if (match == null) {
+                        // Manejar rutas no encontradas
+                        response = ApiGatewayResponse.status(404, new ApiResponse(false, "Path not found: " + event.getPath()));
+                    } else {
+                        route = match.getTemplate();
+                        response = match.getHandler().handle(new ApiGatewayRequest(event, match));
+                    }
+                }
+            } catch (BadRequestException e) {
+                response = ApiGatewayResponse.status(400, new ApiResponse(false, e.getMessage()));
+            } catch (ResourceNotFoundException e) {
+                response = ApiGatewayResponse.status(404, new ApiResponse(false, e.getMessage()));
+            } catch (TooManyRequestsException e) {
+                response = ApiGatewayResponse.status(429, new ApiResponse(false, e.getMessage()))
+                        .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            } catch (ServiceUnavailableException e) {
+                response = ApiGatewayResponse.status(503, new ApiResponse(false, e.getMessage()))
+                        .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            } catch (Exception e) {
+                response = ApiGatewayResponse.status(500, new ApiResponse(false, "Error processing request: " + e.getMessage()));
+            } finally {
+                QueryStats.stop();
+            }
+            if (timing != null) {
+                timing.handlerFinished();
+            }
+            record(event.getHttpMethod(), route, response.getStatusCode(), System.nanoTime() - start, stats);
+
+            // El cuerpo se serializa antes de escribir para que Server-Timing incluya esa fase
+            if (timing != null) {
+                timing.serializationStarted();
+            }
+            body = codec.writeBody(response);
+            if (timing != null) {
+                timing.serializationFinished();
+                if (timingReporter.isHeaderEnabled()) {
+                    response.header(RequestTiming.HEADER, timing.toHeader());
+                }
+            }
+        } finally {
+            if (timing != null) {
+                RequestTiming.stop();
+            }
+        }
+        if (timing != null) {
+            timingReporter.report(event.getHttpMethod() + " " + route, response.getStatusCode(), timing);
+        }
+        codec.writeResponse(outputStream, response, body);
+    }
+
+    private void record(String method, String route, int status, long elapsedNanos, QueryStats stats) {
+        Tags tags = Tags.of("handler", getClass().getSimpleName(), "method", method, "route", route);
+        Timer.builder("lambda.requests")
+                .description("API Gateway invocations handled by the Lambda handlers")
+                .tags(tags)
+                .tag("status", String.valueOf(status))
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        queryStatsReporter.report("lambda.requests", tags, method + " " + route, stats);
+    }
+
+    // Verificar token JWT
+    protected static boolean isAuthorized(ApiGatewayRequest request) {
+        long authStart = System.nanoTime();
+        String authToken = request.getBearerToken();
+        boolean authorized = !authToken.isEmpty() && tokenProvider.validateToken(authToken);
+        RequestTiming.authFinished(authStart);
+        return authorized;
+    }
+
+    protected static ApiGatewayResponse unauthorized() {
+        return ApiGatewayResponse.status(401, new ApiResponse(false, "Unauthorized"));
+    }
+}
@@ -0,0 +1,111 @@
+package co.edu.escuelaing.microblog.handler;
+
+import java.util.Map;
+
+/**
+ * Petición de API Gateway ya resuelta contra la tabla de rutas
+ */
+public class ApiGatewayRequest {
+    private final String httpMethod;
+    private final String path;
+    private final String body;
+    private final Map<String, String> headers;
+    private final Map<String, String> queryStringParameters;
+    private final LambdaRouter.Match<?> match;
+
+    public ApiGatewayRequest(ApiGatewayEvent event, LambdaRouter.Match<?> match) {
+        this.httpMethod = event.getHttpMethod();
+        this.path = event.getPath();
+        this.body = event.getBody();
+        this.headers = event.getHeaders();
+        this.queryStringParameters = event.getQueryStringParameters();
+        this.match = match;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    // Los nombres de cabecera no distinguen mayúsculas; algunos clientes los envían en minúscula
+    public String getHeader(String name) {
+        String value = headers.get(name);
+        if (value == null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue();
+                }
+            }
+        }
+        return value;
+    }
+
+    // Indica si el ETag actual aparece en If-None-Match: la cabecera es una lista separada por comas,
+    // * coincide con cualquiera y W/"x" equivale a "x" (comparación débil, como checkNotModified de Spring)
+    public boolean matchesIfNoneMatch(String etag) {
+        String ifNoneMatch = getHeader("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String current = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    // Token JWT de la cabecera Authorization, o cadena vacía si no hay
+    public String getBearerToken() {
+        String authorization = getHeader("Authorization");
+        return authorization == null ? "" : authorization.replace("Bearer ", "");
+    }
+
+    public String getPathVariable(String name) {
+        return match.getVariable(name);
+    }
+
+    public long getPathLong(String name) {
+        return match.getLong(name);
+    }
+
+    public String getQueryParameter(String name) {
+        return queryStringParameters.get(name);
+    }
+
+    public int getQueryInt(String name, int defaultValue) {
+        String value = queryStringParameters.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public boolean getQueryBoolean(String name, boolean defaultValue) {
+        String value = queryStringParameters.get(name);
+        if ("true".equals(value)) {
+            return true;
+        }
+        if ("false".equals(value)) {
+            return false;
+        }
+        return defaultValue;
+    }
+}
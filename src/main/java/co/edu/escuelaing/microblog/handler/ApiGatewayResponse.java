@@ -0,0 +1,44 @@
+package co.edu.escuelaing.microblog.handler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Respuesta de un handler de ruta: código de estado, cuerpo (que se serializa a
+ * JSON; null significa cuerpo vacío) y cabeceras adicionales
+ */
+public class ApiGatewayResponse {
+    private final int statusCode;
+    private final Object body;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    public ApiGatewayResponse(int statusCode, Object body) {
+        this.statusCode = statusCode;
+        this.body = body;
+    }
+
+    public static ApiGatewayResponse ok(Object body) {
+        return new ApiGatewayResponse(200, body);
+    }
+
+    public static ApiGatewayResponse status(int statusCode, Object body) {
+        return new ApiGatewayResponse(statusCode, body);
+    }
+
+    public ApiGatewayResponse header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public Object getBody() {
+        return body;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+}
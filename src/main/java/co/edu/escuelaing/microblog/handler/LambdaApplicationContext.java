@@ -0,0 +1,70 @@
+package co.edu.escuelaing.microblog.handler;
+
+import co.edu.escuelaing.microblog.MicroblogApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Contexto de Spring compartido por los handlers de AWS Lambda.
+ *
+ * Se arranca una sola vez por entorno de ejecución, durante la fase de inicialización
+ * de Lambda, con el perfil "lambda": sin servidor web, sin consola H2 ni devtools y con
+ * los beans creados bajo demanda. Tras arrancar se ejecuta LambdaPrimer para que la
+ * primera petición no pague la carga de Hibernate, Jackson y la clave JWT.
+ */
+public final class LambdaApplicationContext {
+
+    private static final Logger logger = LoggerFactory.getLogger(LambdaApplicationContext.class);
+
+    public static final String PROFILE = "lambda";
+
+    private LambdaApplicationContext() {
+    }
+
+    // Inicialización perezosa y segura entre hilos: la clase interna se carga en el primer acceso
+    private static final class Holder {
+        private static final ConfigurableApplicationContext CONTEXT = start();
+    }
+
+    /**
+     * Obtiene un bean del contexto compartido, arrancándolo si es necesario
+     */
+    public static <T> T getBean(Class<T> type) {
+        return Holder.CONTEXT.getBean(type);
+    }
+
+    public static ConfigurableApplicationContext getContext() {
+        return Holder.CONTEXT;
+    }
+
+    private static ConfigurableApplicationContext start() {
+        long start = System.nanoTime();
+
+        // Devtools se configura antes de leer application-lambda.properties
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(MicroblogApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles(PROFILE)
+                    .bannerMode(Banner.Mode.OFF)
+                    .logStartupInfo(false)
+                    .run();
+            long started = System.nanoTime();
+
+            if (context.getEnvironment().getProperty("app.lambda.prime", Boolean.class, true)) {
+                context.getBean(LambdaPrimer.class).prime();
+            }
+
+            logger.info("Lambda context started in {} ms, primed in {} ms",
+                    (started - start) / 1_000_000, (System.nanoTime() - started) / 1_000_000);
+            return context;
+        } catch (Exception e) {
+            throw new IllegalStateException("Error initializing Spring context: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package co.edu.escuelaing.microblog.handler;
+
+import co.edu.escuelaing.microblog.dto.ApiResponse;
+import co.edu.escuelaing.microblog.dto.CursorPage;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.model.User;
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import co.edu.escuelaing.microblog.repository.UserRepository;
+import co.edu.escuelaing.microblog.security.JwtTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ejecuta una vez, antes de la primera petición, el trabajo que de otro modo
+ * pagaría la primera invocación de cada handler: metadatos y planes de consulta
+ * de Hibernate, serializadores de Jackson y la clave y el parser de JWT.
+ */
+@Component
+@Profile(LambdaApplicationContext.PROFILE)
+public class LambdaPrimer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LambdaPrimer.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    public void prime() {
+        try {
+            primeHibernate();
+            primeJackson();
+            primeJwt();
+        } catch (Exception e) {
+            // Un fallo al precalentar no debe impedir atender peticiones
+            logger.warn("Lambda priming failed: {}", e.getMessage());
+        }
+    }
+
+    // Construye el metamodelo, abre la primera conexión y compila las consultas más usadas
+    private void primeHibernate() {
+        entityManagerFactory.getMetamodel().getEntities();
+        streamRepository.findAll(PageRequest.of(0, 1));
+        userRepository.existsByUsername("");
+        postRepository.findFeedByStream(0L, Limit.of(1));
+        postRepository.findFeedByUser(0L, Limit.of(1));
+        postRepository.findAllSummaries(PageRequest.of(0, 1));
+    }
+
+    // Resuelve y cachea los serializadores de los tipos que devuelven los handlers
+    private void primeJackson() throws Exception {
+        User user = new User();
+        user.setId(0L);
+        user.setUsername("primer");
+        Stream stream = new Stream();
+        stream.setId(0L);
+        stream.setName("primer");
+        Post post = new Post();
+        post.setId(0L);
+        post.setContent("primer");
+        post.setUser(user);
+        post.setStream(stream);
+        post.setCreatedAt(LocalDateTime.now());
+
+        PostSummary summary = PostSummary.of(post);
+        objectMapper.writeValueAsString(new CursorPage<>(List.of(summary), null, false));
+        objectMapper.writeValueAsString(List.of(stream));
+        objectMapper.writeValueAsString(post);
+        objectMapper.writeValueAsString(new ApiResponse(true, "primer"));
+
+        // Ida y vuelta por el codec de eventos de API Gateway
+        ApiGatewayCodec codec = new ApiGatewayCodec(objectMapper);
+        byte[] event = "{\"path\":\"/\",\"httpMethod\":\"GET\",\"headers\":{},\"requestContext\":{}}"
+                .getBytes(StandardCharsets.UTF_8);
+        codec.readEvent(new ByteArrayInputStream(event), new ApiGatewayEvent());
+        codec.writeResponse(new ByteArrayOutputStream(), ApiGatewayResponse.ok(new ApiResponse(true, "primer")));
+        objectMapper.readValue("{\"content\":\"primer\"}", Post.class);
+    }
+
+    // Deriva la clave HMAC y construye el parser reutilizable
+    private void primeJwt() {
+        tokenProvider.parseToken(tokenProvider.generateToken("primer"));
+    }
+}
@@ -0,0 +1,165 @@
+package co.edu.escuelaing.microblog.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabla de rutas precompilada para los handlers de API Gateway.
+ *
+ * Las plantillas ("/api/posts/stream/{streamId:long}/feed") se compilan al arrancar
+ * en un trie de segmentos, de modo que resolver una petición recorre el path una sola
+ * vez, en O(segmentos), sin compilar ni evaluar expresiones regulares. Las variables
+ * pueden ser de texto ({nombre}) o numéricas ({nombre:long}); en cada nivel se
+ * prueban primero los literales, luego las variables numéricas y por último las de texto.
+ */
+public final class LambdaRouter<H> {
+
+    private static final int MAX_VARIABLES = 8;
+
+    private final Node<H> root = new Node<>();
+
+    /**
+     * Registra un handler para un método HTTP y una plantilla de path
+     */
+    public LambdaRouter<H> add(String method, String template, H handler) {
+        Node<H> node = root;
+        List<String> names = new ArrayList<>();
+
+        for (String segment : template.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                String spec = segment.substring(1, segment.length() - 1);
+                int colon = spec.indexOf(':');
+                String type = colon < 0 ? "string" : spec.substring(colon + 1);
+                names.add(colon < 0 ? spec : spec.substring(0, colon));
+
+                if (type.equals("long")) {
+                    node = node.longChild != null ? node.longChild : (node.longChild = new Node<>());
+                } else if (type.equals("string")) {
+                    node = node.textChild != null ? node.textChild : (node.textChild = new Node<>());
+                } else {
+                    throw new IllegalArgumentException("Unknown path variable type '" + type + "' in " + template);
+                }
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node<>());
+            }
+        }
+
+        if (names.size() > MAX_VARIABLES) {
+            throw new IllegalArgumentException("Too many path variables in " + template);
+        }
+        if (node.endpoints.putIfAbsent(method, new Endpoint<>(handler, template, names.toArray(new String[0]))) != null) {
+            throw new IllegalArgumentException("Duplicate route " + method + " " + template);
+        }
+        return this;
+    }
+
+    /**
+     * Resuelve el handler de una petición, o null si ninguna ruta coincide
+     */
+    public Match<H> match(String method, String path) {
+        String[] values = new String[MAX_VARIABLES];
+        return match(root, method, path, path.startsWith("/") ? 1 : 0, values, 0);
+    }
+
+    private Match<H> match(Node<H> node, String method, String path, int start, String[] values, int count) {
+        if (start >= path.length()) {
+            Endpoint<H> endpoint = node.endpoints.get(method);
+            return endpoint == null ? null : new Match<>(endpoint, Arrays.copyOf(values, count));
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        String segment = path.substring(start, end);
+        int next = end + 1;
+
+        Node<H> literal = node.literals.get(segment);
+        if (literal != null) {
+            Match<H> match = match(literal, method, path, next, values, count);
+            if (match != null) {
+                return match;
+            }
+        }
+        if (count == MAX_VARIABLES || segment.isEmpty()) {
+            return null;
+        }
+        if (node.longChild != null && isLong(segment)) {
+            values[count] = segment;
+            Match<H> match = match(node.longChild, method, path, next, values, count + 1);
+            if (match != null) {
+                return match;
+            }
+        }
+        if (node.textChild != null) {
+            values[count] = segment;
+            return match(node.textChild, method, path, next, values, count + 1);
+        }
+        return null;
+    }
+
+    private static boolean isLong(String segment) {
+        if (segment.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node<H> {
+        private final Map<String, Node<H>> literals = new HashMap<>();
+        private final Map<String, Endpoint<H>> endpoints = new HashMap<>(4);
+        private Node<H> longChild;
+        private Node<H> textChild;
+    }
+
+    private record Endpoint<H>(H handler, String template, String[] names) {
+    }
+
+    /**
+     * Ruta resuelta junto con los valores de sus variables de path
+     */
+    public static final class Match<H> {
+        private final Endpoint<H> endpoint;
+        private final String[] values;
+
+        private Match(Endpoint<H> endpoint, String[] values) {
+            this.endpoint = endpoint;
+            this.values = values;
+        }
+
+        public H getHandler() {
+            return endpoint.handler();
+        }
+
+        // Plantilla registrada, útil como etiqueta de baja cardinalidad en las métricas
+        public String getTemplate() {
+            return endpoint.template();
+        }
+
+        public String getVariable(String name) {
+            String[] names = endpoint.names();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return values[i];
+                }
+            }
+            throw new IllegalArgumentException("Unknown path variable: " + name);
+        }
+
+        public long getLong(String name) {
+            return Long.parseLong(getVariable(name));
+        }
+    }
+}
@@ -1,247 +1,183 @@
 package co.edu.escuelaing.microblog.handler;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import co.edu.escuelaing.microblog.dto.ApiResponse;
+import co.edu.escuelaing.microblog.dto.BulkImportResponse;
+import co.edu.escuelaing.microblog.dto.CursorPage;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.dto.SliceResponse;
 import co.edu.escuelaing.microblog.model.Post;
-import co.edu.escuelaing.microblog.security.JwtTokenProvider;
+import co.edu.escuelaing.microblog.service.PostBulkImporter;
 import co.edu.escuelaing.microblog.service.PostService;
-import co.edu.escuelaing.microblog.service.StreamService;
-import co.edu.escuelaing.microblog.service.UserService;
-import com.amazonaws.services.lambda.runtime.Context;
-import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
-public class PostServiceHandler implements RequestStreamHandler {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-    private static final PostService postService = new PostService();
-    private static final UserService userService = new UserService();
-    private static final StreamService streamService = new StreamService();
-    private static final JwtTokenProvider tokenProvider = new JwtTokenProvider();
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+public class PostServiceHandler extends ApiGatewayHandler {
+    private static final PostService postService = LambdaApplicationContext.getBean(PostService.class);
+    private static final PostBulkImporter postBulkImporter = LambdaApplicationContext.getBean(PostBulkImporter.class);
+
+    private static final LambdaRouter<Route> router = new LambdaRouter<Route>()
+            .add("GET", "/api/posts", PostServiceHandler::getAllPosts)
+            .add("GET", "/api/posts/stream/{streamId:long}", PostServiceHandler::getPostsByStream)
+            .add("GET", "/api/posts/user/{userId:long}", PostServiceHandler::getPostsByUser)
+            .add("GET", "/api/posts/slice", PostServiceHandler::getAllPostsSlice)
+            .add("GET", "/api/posts/stream/{streamId:long}/slice", PostServiceHandler::getPostsByStreamSlice)
+            .add("GET", "/api/posts/user/{userId:long}/slice", PostServiceHandler::getPostsByUserSlice)
+            .add("GET", "/api/posts/stream/{streamId:long}/feed", PostServiceHandler::getFeedByStream)
+            .add("GET", "/api/posts/user/{userId:long}/feed", PostServiceHandler::getFeedByUser)
+            .add("GET", "/api/posts/stream/{streamId:long}/since/{cursor}", PostServiceHandler::getPostsSince)
+            .add("POST", "/api/posts/user/{userId:long}/stream/{streamId:long}", PostServiceHandler::createPost)
+            .add("POST", "/api/posts/bulk", PostServiceHandler::importPosts)
+            .add("PUT", "/api/posts/{postId:long}", PostServiceHandler::updatePost)
+            .add("DELETE", "/api/posts/{postId:long}", PostServiceHandler::deletePost);
 
     @Override
-    public void handleRequest(InputStream inputStream, OutputStream outputStream, Context context) throws IOException {
-        // Leer el evento entrante
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-        String requestBody = reader.lines().collect(Collectors.joining());
-
-        // Convertir el cuerpo de la solicitud a JSON
-        JsonNode event = objectMapper.readTree(requestBody);
-
-        // Extraer información de la solicitud
-        String path = event.path("path").asText();
-        String httpMethod = event.path("httpMethod").asText();
-        String body = event.path("body").asText();
-        JsonNode headers = event.path("headers");
-        JsonNode queryStringParameters = event.path("queryStringParameters");
-
-        Map<String, String> responseHeaders = new HashMap<>();
-        responseHeaders.put("Content-Type", "application/json");
-        responseHeaders.put("Access-Control-Allow-Origin", "*");
-        responseHeaders.put("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
-        responseHeaders.put("Access-Control-Allow-Headers", "Content-Type, Authorization");
-
-        String responseBody;
-        int statusCode;
-
-        try {
-            // Verificar autorización para operaciones que requieren autenticación
-            String authToken = headers.path("Authorization").asText("").replace("Bearer ", "");
-
-            // Obtener todos los posts
-            if (httpMethod.equals("GET") && path.equals("/api/posts")) {
-                // Extraer parámetros de paginación
-                int page = queryStringParameters != null && !queryStringParameters.path("page").isMissingNode() ?
-                        queryStringParameters.path("page").asInt(0) : 0;
-                int size = queryStringParameters != null && !queryStringParameters.path("size").isMissingNode() ?
-                        queryStringParameters.path("size").asInt(10) : 10;
-
-                Pageable pageable = PageRequest.of(page, size);
-                Page<Post> posts = postService.getAllPosts(pageable);
-
-                responseBody = objectMapper.writeValueAsString(posts);
-                statusCode = 200;
-            }
-            // Obtener posts por stream
-            else if (httpMethod.equals("GET") && path.matches("/api/posts/stream/\\d+")) {
-                // Extraer el ID del stream de la URL
-                Pattern pattern = Pattern.compile("/api/posts/stream/(\\d+)");
-                Matcher matcher = pattern.matcher(path);
-
-                if (matcher.find()) {
-                    Long streamId = Long.parseLong(matcher.group(1));
-
-                    // Extraer parámetros de paginación
-                    int page = queryStringParameters != null && !queryStringParameters.path("page").isMissingNode() ?
-                            queryStringParameters.path("page").asInt(0) : 0;
-                    int size = queryStringParameters != null && !queryStringParameters.path("size").isMissingNode() ?
-                            queryStringParameters.path("size").asInt(10) : 10;
-
-                    Pageable pageable = PageRequest.of(page, size);
-                    Page<Post> posts = postService.getPostsByStream(streamId, pageable);
-
-                    responseBody = objectMapper.writeValueAsString(posts);
-                    statusCode = 200;
-                } else {
-                    ApiResponse response = new ApiResponse(false, "Invalid stream ID format");
-                    responseBody = objectMapper.writeValueAsString(response);
-                    statusCode = 400;
-                }
-            }
-            // Obtener posts por usuario
-            else if (httpMethod.equals("GET") && path.matches("/api/posts/user/\\d+")) {
-                // Extraer el ID del usuario de la URL
-                Pattern pattern = Pattern.compile("/api/posts/user/(\\d+)");
-                Matcher matcher = pattern.matcher(path);
-
-                if (matcher.find()) {
-                    Long userId = Long.parseLong(matcher.group(1));
-
-                    // Extraer parámetros de paginación
-                    int page = queryStringParameters != null && !queryStringParameters.path("page").isMissingNode() ?
-                            queryStringParameters.path("page").asInt(0) : 0;
-                    int size = queryStringParameters != null && !queryStringParameters.path("size").isMissingNode() ?
-                            queryStringParameters.path("size").asInt(10) : 10;
-
-                    Pageable pageable = PageRequest.of(page, size);
-                    Page<Post> posts = postService.getPostsByUser(userId, pageable);
-
-                    responseBody = objectMapper.writeValueAsString(posts);
-                    statusCode = 200;
-                } else {
-                    ApiResponse response = new ApiResponse(false, "Invalid user ID format");
-                    responseBody = objectMapper.writeValueAsString(response);
-                    statusCode = 400;
-                }
-            }
-            // Crear un nuevo post
-            else if (httpMethod.equals("POST") && path.matches("/api/posts/user/\\d+/stream/\\d+")) {
-                // Verificar token JWT
-                if (authToken.isEmpty() || !tokenProvider.validateToken(authToken)) {
-                    ApiResponse response = new ApiResponse(false, "Unauthorized");
-                    responseBody = objectMapper.writeValueAsString(response);
-                    statusCode = 401;
-                } else {
-                    // Extraer los IDs de usuario y stream de la URL
-                    Pattern pattern = Pattern.compile("/api/posts/user/(\\d+)/stream/(\\d+)");
-                    Matcher matcher = pattern.matcher(path);
-
-                    if (matcher.find()) {
-                        Long userId = Long.parseLong(matcher.group(1));
-                        Long streamId = Long.parseLong(matcher.group(2));
-
-                        // Convertir el cuerpo de la solicitud a un objeto Post
-                        Post post = objectMapper.readValue(body, Post.class);
-
-                        // Crear el post
-                        Post createdPost = postService.createPost(post, userId, streamId);
-
-                        responseBody = objectMapper.writeValueAsString(createdPost);
-                        statusCode = 201;
-                    } else {
-                        ApiResponse response = new ApiResponse(false, "Invalid URL format");
-                        responseBody = objectMapper.writeValueAsString(response);
-                        statusCode = 400;
-                    }
-                }
-            }
-            // Actualizar un post existente
-            else if (httpMethod.equals("PUT") && path.matches("/api/posts/\\d+")) {
-                // Verificar token JWT
-                if (authToken.isEmpty() || !tokenProvider.validateToken(authToken)) {
-                    ApiResponse response = new ApiResponse(false, "Unauthorized");
-                    responseBody = objectMapper.writeValueAsString(response);
-                    statusCode = 401;
-                } else {
-                    // Extraer el ID del post de la URL
-                    Pattern pattern = Pattern.compile("/api/posts/(\\d+)");
-                    Matcher matcher = pattern.matcher(path);
-
-                    if (matcher.find()) {
-                        Long postId = Long.parseLong(matcher.group(1));
-
-                        // Convertir el cuerpo de la solicitud a un objeto Post
-                        Post post = objectMapper.readValue(body, Post.class);
-
-                        // Actualizar el post
-                        Post updatedPost = postService.updatePost(postId, post);
-
-                        responseBody = objectMapper.writeValueAsString(updatedPost);
-                        statusCode = 200;
-                    } else {
-                        ApiResponse response = new ApiResponse(false, "Invalid post ID format");
-                        responseBody = objectMapper.writeValueAsString(response);
-                        statusCode = 400;
-                    }
-                }
-            }
-            // Eliminar un post
-            else if (httpMethod.equals("DELETE") && path.matches("/api/posts/\\d+")) {
-                // Verificar token JWT
-                if (authToken.isEmpty() || !tokenProvider.validateToken(authToken)) {
-                    ApiResponse response = new ApiResponse(false, "Unauthorized");
-                    responseBody = objectMapper.writeValueAsString(response);
-                    statusCode = 401;
-                } else {
-                    // Extraer el ID del post de la URL
-                    Pattern pattern = Pattern.compile("/api/posts/(\\d+)");
-                    Matcher matcher = pattern.matcher(path);
-
-                    if (matcher.find()) {
-                        Long postId = Long.parseLong(matcher.group(1));
-
-                        // Eliminar el post
-                        postService.deletePost(postId);
-
-                        ApiResponse response = new ApiResponse(true, "Post deleted successfully");
-                        responseBody = objectMapper.writeValueAsString(response);
-                        statusCode = 200;
-                    } else {
-                        ApiResponse response = new ApiResponse(false, "Invalid post ID format");
-                        responseBody = objectMapper.writeValueAsString(response);
-                        statusCode = 400;
-                    }
-                }
-            }
-            // Manejar método OPTIONS para CORS preflight
-            else if (httpMethod.equals("OPTIONS")) {
-                responseBody = "";
-                statusCode = 200;
-            }
-            // Manejar rutas no encontradas
-            else {
-                ApiResponse response = new ApiResponse(false, "Path not found: " + path);
-                responseBody = objectMapper.writeValueAsString(response);
-                statusCode = 404;
-            }
-        } catch (Exception e) {
-            ApiResponse response = new ApiResponse(false, "Error processing request: " + e.getMessage());
-            responseBody = objectMapper.writeValueAsString(response);
-            statusCode = 500;
+    protected LambdaRouter<Route> routes() {
+        return router;
+    }
+
+    // Obtener todos los posts
+    private static ApiGatewayResponse getAllPosts(ApiGatewayRequest request) {
+        Page<PostSummary> posts = postService.getAllPosts(pageable(request));
+        return ApiGatewayResponse.ok(posts);
+    }
+
+    // Obtener posts por stream
+    private static ApiGatewayResponse getPostsByStream(ApiGatewayRequest request) {
+        Long streamId = request.getPathLong("streamId");
+        Page<PostSummary> posts = postService.getPostsByStream(streamId, pageable(request));
+        return ApiGatewayResponse.ok(posts);
+    }
+
+    // Obtener posts por usuario
+    private static ApiGatewayResponse getPostsByUser(ApiGatewayRequest request) {
+        Long userId = request.getPathLong("userId");
+        Page<PostSummary> posts = postService.getPostsByUser(userId, pageable(request));
+        return ApiGatewayResponse.ok(posts);
+    }
+
+    // Obtener todos los posts sin conteo total
+    private static ApiGatewayResponse getAllPostsSlice(ApiGatewayRequest request) {
+        SliceResponse<PostSummary> posts =
+                postService.getAllPostsSlice(pageable(request), request.getQueryBoolean("withTotal", false));
+        return ApiGatewayResponse.ok(posts);
+    }
+
+    // Obtener posts por stream sin conteo total
+    private static ApiGatewayResponse getPostsByStreamSlice(ApiGatewayRequest request) {
+        Long streamId = request.getPathLong("streamId");
+        SliceResponse<PostSummary> posts = postService.getPostsByStreamSlice(
+                streamId, pageable(request), request.getQueryBoolean("withTotal", false));
+        return ApiGatewayResponse.ok(posts);
+    }
+
+    // Obtener posts por usuario sin conteo total
+    private static ApiGatewayResponse getPostsByUserSlice(ApiGatewayRequest request) {
+        Long userId = request.getPathLong("userId");
+        SliceResponse<PostSummary> posts = postService.getPostsByUserSlice(
+                userId, pageable(request), request.getQueryBoolean("withTotal", false));
+        return ApiGatewayResponse.ok(posts);
+    }
+
+    // Obtener el feed de un stream paginado por cursor
+    private static ApiGatewayResponse getFeedByStream(ApiGatewayRequest request) {
+        Long streamId = request.getPathLong("streamId");
+        String cursor = request.getQueryParameter("cursor");
+        int size = request.getQueryInt("size", PostService.DEFAULT_FEED_SIZE);
+
+        CursorPage<PostSummary> feed = postService.getFeedByStream(streamId, cursor, size);
+        return ApiGatewayResponse.ok(feed);
+    }
+
+    // Obtener el feed de un usuario paginado por cursor
+    private static ApiGatewayResponse getFeedByUser(ApiGatewayRequest request) {
+        Long userId = request.getPathLong("userId");
+        String cursor = request.getQueryParameter("cursor");
+        int size = request.getQueryInt("size", PostService.DEFAULT_FEED_SIZE);
+
+        CursorPage<PostSummary> feed = postService.getFeedByUser(userId, cursor, size);
+        return ApiGatewayResponse.ok(feed);
+    }
+
+    // Obtener los posts de un stream posteriores a un cursor
+    private static ApiGatewayResponse getPostsSince(ApiGatewayRequest request) {
+        Long streamId = request.getPathLong("streamId");
+        String cursor = request.getPathVariable("cursor");
+        int size = request.getQueryInt("size", PostService.DEFAULT_FEED_SIZE);
+
+        // Si el cliente ya tiene el estado actual se responde sin cuerpo
+        String etag = postService.getStreamETag(streamId);
+        if (request.matchesIfNoneMatch(etag)) {
+            return ApiGatewayResponse.status(304, null).header("ETag", etag);
         }
 
-        // Crear respuesta
-        Map<String, Object> lambdaResponse = new HashMap<>();
-        lambdaResponse.put("statusCode", statusCode);
-        lambdaResponse.put("headers", responseHeaders);
-        lambdaResponse.put("body", responseBody);
+        CursorPage<PostSummary> posts = postService.getPostsSince(streamId, cursor, size);
+        return ApiGatewayResponse.ok(posts).header("ETag", etag);
+    }
+
+    // Crear un nuevo post
+    private static ApiGatewayResponse createPost(ApiGatewayRequest request) throws Exception {
+        if (!isAuthorized(request)) {
+            return unauthorized();
+        }
+
+        Long userId = request.getPathLong("userId");
+        Long streamId = request.getPathLong("streamId");
+
+        // Convertir el cuerpo de la solicitud a un objeto Post
+        Post post = objectMapper.readValue(request.getBody(), Post.class);
+
+        // Crear el post
+        Post createdPost = postService.createPost(post, userId, streamId);
+        return ApiGatewayResponse.status(201, createdPost);
+    }
+
+    // Crear varios posts desde NDJSON o un array JSON
+    private static ApiGatewayResponse importPosts(ApiGatewayRequest request) throws Exception {
+        if (!isAuthorized(request)) {
+            return unauthorized();
+        }
+
+        String body = request.getBody() == null ? "" : request.getBody();
+        BulkImportResponse result = postBulkImporter.importPosts(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        return ApiGatewayResponse.ok(result);
+    }
+
+    // Actualizar un post existente
+    private static ApiGatewayResponse updatePost(ApiGatewayRequest request) throws Exception {
+        if (!isAuthorized(request)) {
+            return unauthorized();
+        }
+
+        Long postId = request.getPathLong("postId");
+
+        // Convertir el cuerpo de la solicitud a un objeto Post
+        Post post = objectMapper.readValue(request.getBody(), Post.class);
+
+        // Actualizar el post
+        Post updatedPost = postService.updatePost(postId, post);
+        return ApiGatewayResponse.ok(updatedPost);
+    }
+
+    // Eliminar un post
+    private static ApiGatewayResponse deletePost(ApiGatewayRequest request) {
+        if (!isAuthorized(request)) {
+            return unauthorized();
+        }
+
+        Long postId = request.getPathLong("postId");
+        postService.deletePost(postId);
+        return ApiGatewayResponse.ok(new ApiResponse(true, "Post deleted successfully"));
+    }
 
-        // Escribir la respuesta
-        OutputStreamWriter writer = new OutputStreamWriter(outputStream);
-        writer.write(objectMapper.writeValueAsString(lambdaResponse));
-        writer.close();
+    // Extraer parámetros de paginación
+    private static Pageable pageable(ApiGatewayRequest request) {
+        int page = request.getQueryInt("page", 0);
+        int size = request.getQueryInt("size", 10);
+        return PageRequest.of(page, size);
     }
-}
\ No newline at end of file
+}
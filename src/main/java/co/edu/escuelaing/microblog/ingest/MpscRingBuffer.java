@@ -0,0 +1,118 @@
+package co.edu.escuelaing.microblog.ingest;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola acotada de varios productores y un solo consumidor, sin bloqueos.
+ *
+ * Es un buffer circular con un número de secuencia por celda (el esquema de D. Vyukov):
+ * cada productor reserva una posición avanzando la cola con CAS, escribe el elemento y
+ * publica la celda poniendo su secuencia a posición + 1. El consumidor solo lee celdas
+ * publicadas y las devuelve a los productores poniendo su secuencia a posición + capacidad,
+ * de modo que offer nunca espera a otro hilo: si la celda aún no se ha consumido, la cola
+ * está llena y offer devuelve false.
+ *
+ * poll y drainTo solo pueden llamarse desde un hilo a la vez.
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Solo la escribe el consumidor; es volatile para que size() sea coherente desde otros hilos
+    private volatile long head;
+
+    /**
+     * @param capacity número de elementos; se redondea a la siguiente potencia de dos
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + (1 << 30));
+        }
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Añade el elemento si hay sitio. Devuelve false, sin esperar, si la cola está llena.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element");
+        }
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long lag = sequences.get(index) - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                // La celda conserva un elemento de la vuelta anterior que el consumidor no ha leído
+                return false;
+            } else {
+                // Otro productor ya tomó esta posición
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Saca el elemento más antiguo, o null si no hay ninguno publicado
+     */
+    public E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        sequences.set(index, position + mask + 1);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * Mueve a target hasta max elementos, en orden, y devuelve cuántos movió
+     */
+    public int drainTo(Collection<? super E> target, int max) {
+        int drained = 0;
+        E element;
+        while (drained < max && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Elementos reservados y aún no consumidos; es una estimación mientras hay productores activos
+     */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,395 @@
+package co.edu.escuelaing.microblog.ingest;
+
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.event.PostEvent;
+import co.edu.escuelaing.microblog.event.StreamDeletedEvent;
+import co.edu.escuelaing.microblog.event.UserDeletedEvent;
+import co.edu.escuelaing.microblog.exception.BadRequestException;
+import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
+import co.edu.escuelaing.microblog.exception.ServiceUnavailableException;
+import co.edu.escuelaing.microblog.exception.TooManyRequestsException;
+import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import co.edu.escuelaing.microblog.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Ingesta asíncrona de posts (write-behind), activada con app.posts.write-behind.enabled.
+ *
+ * submit valida el post, le asigna su ID del mismo generador de secuencia que usa Hibernate
+ * y lo deja en un MpscRingBuffer; la petición termina sin tocar la base de datos salvo para
+ * reservar un bloque de IDs cada 50 posts. Un único hilo escritor vacía el buffer e inserta
+ * lo acumulado con un lote JDBC en una sola transacción: mientras confirma un lote llegan
+ * los posts del siguiente, así que el tamaño del lote crece con la carga (group commit) y
+ * con poca carga cada post se escribe enseguida. Si el buffer está lleno submit responde
+ * 429 en lugar de esperar.
+ *
+ * Al cerrar la aplicación se deja de aceptar posts y se escribe todo lo pendiente antes de
+ * cerrar el DataSource. Un post aceptado cuyo usuario o stream se elimina antes de escribirse
+ * se descarta al violar la integridad referencial, y se cuenta en posts.write-behind.failed.
+ * Cualquier otro fallo (conexión perdida, base de datos caída, ConnectionGate agotado) no
+ * descarta nada: el lote se reintenta con una espera creciente y, si el fallo dura, el buffer
+ * se llena y submit responde 429.
+ */
+@Component
+public class PostWriteBehind implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostWriteBehind.class);
+
+    // Se detiene después del servidor web, cuando ya no llegan posts, y antes de destruir el DataSource
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final String INSERT_POST =
+            "INSERT INTO posts (id, content, created_at, user_id, stream_id) VALUES (?, ?, ?, ?, ?)";
+
+    // Espera máxima del escritor sin trabajo; los productores lo despiertan antes
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // Espera entre reintentos de un lote tras un fallo transitorio; se duplica hasta el máximo
+    private static final long MIN_RETRY_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    // Igual al allocationSize de posts_seq: cada bloque suele costar una sola lectura de la secuencia
+    private static final int ID_BLOCK_SIZE = 50;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.posts.write-behind.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${app.posts.write-behind.max-batch:500}")
+    private int maxBatch = 500;
+
+    @Value("${app.posts.write-behind.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMs = 30000;
+
+    @Value("${app.posts.write-behind.retry-after-seconds:1}")
+    private long retryAfterSeconds = 1;
+
+    @Value("${app.posts.write-behind.max-cached-names:10000}")
+    private int maxCachedNames = 10000;
+
+    private final MpscRingBuffer<PostSummary> buffer;
+
+    // Nombres de los usuarios y streams ya comprobados; los borrados se quitan con sus eventos
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+    private final Map<Long, String> streamNames = new ConcurrentHashMap<>();
+
+    // submit en curso: el escritor no termina mientras alguno pueda dejar todavía un post en el buffer
+    private final AtomicInteger submitting = new AtomicInteger();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // Solo los modifica el hilo escritor
+    private volatile long written;
+    private volatile long failed;
+    private volatile long batches;
+
+    private volatile boolean running;
+    private volatile boolean writerParked;
+    private volatile Thread writer;
+    private BeforeExecutionGenerator idGenerator;
+    private SessionFactoryImplementor sessionFactory;
+
+    // IDs reservados de una vez con una sola StatelessSession; se reparten bajo idLock, que no
+    // es un monitor para no fijar el hilo portador de un hilo virtual mientras se lee la secuencia
+    private final ReentrantLock idLock = new ReentrantLock();
+    private final long[] idBlock = new long[ID_BLOCK_SIZE];
+    private int idNext = ID_BLOCK_SIZE;
+    private TransactionTemplate transaction;
+
+    public PostWriteBehind(@Value("${app.posts.write-behind.capacity:8192}") int capacity) {
+        this.buffer = new MpscRingBuffer<>(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Valida el post y lo deja pendiente de escribir. Devuelve el post con su ID y fecha
+     * definitivos; se podrá leer en cuanto el escritor lo confirme.
+     *
+     * @throws TooManyRequestsException     si el buffer está lleno
+     * @throws ServiceUnavailableException si la ingesta está parada o cerrándose
+     */
+    public PostSummary submit(String content, Long userId, Long streamId) {
+        String username = resolve(usernames, userId, "User", ids -> userRepository.findUsernamesByIdIn(ids));
+        String streamName = resolve(streamNames, streamId, "Stream", ids -> streamRepository.findNamesByIdIn(ids));
+
+        // Validar longitud del contenido (máximo 140 caracteres)
+        if (content == null || content.isEmpty()) {
+            throw new BadRequestException("Post content cannot be empty");
+        }
+        if (content.length() > 140) {
+            throw new BadRequestException("Post content exceeds 140 characters limit");
+        }
+
+        submitting.incrementAndGet();
+        try {
+            if (!running) {
+                throw new ServiceUnavailableException("Post ingestion is not accepting posts", retryAfterSeconds);
+            }
+            PostSummary post = new PostSummary(nextId(), content, LocalDateTime.now(), userId, username, streamId, streamName);
+            if (!buffer.offer(post)) {
+                rejected.increment();
+                throw new TooManyRequestsException("Post ingestion queue is full, please retry", retryAfterSeconds);
+            }
+            accepted.increment();
+            if (writerParked) {
+                LockSupport.unpark(writer);
+            }
+            return post;
+        } finally {
+            submitting.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        idGenerator = (BeforeExecutionGenerator) sessionFactory.getMappingMetamodel().getEntityDescriptor(Post.class).getGenerator();
+        transaction = new TransactionTemplate(transactionManager);
+
+        running = true;
+        Thread thread = new Thread(this::drain, "post-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+        logger.info("Write-behind post ingestion started with room for {} posts", buffer.capacity());
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = writer;
+        if (!running || thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            logger.warn("Write-behind writer did not finish in {} ms; {} posts were not written",
+                    shutdownTimeoutMs, buffer.size());
+        } else {
+            logger.info("Write-behind post ingestion stopped: {} posts written, {} failed", written, failed);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getWrittenCount() {
+        return written;
+    }
+
+    public long getFailedCount() {
+        return failed;
+    }
+
+    public long getBatchCount() {
+        return batches;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        usernames.remove(event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStreamDeleted(StreamDeletedEvent event) {
+        streamNames.remove(event.getStreamId());
+    }
+
+    private void drain() {
+        List<PostSummary> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            if (buffer.drainTo(batch, maxBatch) > 0) {
+                write(batch);
+                batch.clear();
+                continue;
+            }
+            if (!running && submitting.get() == 0 && buffer.isEmpty()) {
+                return;
+            }
+            writerParked = true;
+            // Se vuelve a mirar después de anunciar la espera: un submit posterior ve writerParked y despierta al hilo
+            if (running && buffer.isEmpty()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerParked = false;
+        }
+    }
+
+    private void write(List<PostSummary> batch) {
+        if (insertRetrying(batch)) {
+            written += batch.size();
+            batches++;
+            return;
+        }
+        // Algún post viola la integridad: se reintenta post a post para descartar solo esos
+        logger.warn("Write-behind batch of {} posts violates integrity, retrying one by one", batch.size());
+        for (PostSummary post : batch) {
+            if (insertRetrying(List.of(post))) {
+                written++;
+                batches++;
+            } else {
+                failed++;
+                logger.warn("Dropped accepted post {} of user {} in stream {}: its user or stream no longer exists",
+                        post.getId(), post.getUserId(), post.getStreamId());
+            }
+        }
+    }
+
+    // Inserta los posts en una transacción, reintentando los fallos transitorios hasta que se
+    // confirme; devuelve false solo si la inserción viola la integridad (usuario o stream borrado)
+    private boolean insertRetrying(List<PostSummary> posts) {
+        long backoff = MIN_RETRY_BACKOFF_NANOS;
+        while (true) {
+            try {
+                transaction.executeWithoutResult(status -> insert(posts));
+                return true;
+            } catch (DataIntegrityViolationException e) {
+                return false;
+            } catch (RuntimeException e) {
+                logger.warn("Write-behind insert of {} posts failed, retrying in {} ms: {}", posts.size(),
+                        TimeUnit.NANOSECONDS.toMillis(backoff), e.getMessage());
+                LockSupport.parkNanos(this, backoff);
+                backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private void insert(List<PostSummary> posts) {
+        jdbcTemplate.batchUpdate(INSERT_POST, posts, posts.size(), (statement, post) -> {
+            statement.setLong(1, post.getId());
+            statement.setString(2, post.getContent());
+            statement.setTimestamp(3, Timestamp.valueOf(post.getCreatedAt()));
+            statement.setLong(4, post.getUserId());
+            statement.setLong(5, post.getStreamId());
+        });
+        for (PostSummary post : posts) {
+            eventPublisher.publishEvent(PostEvent.created(post));
+        }
+    }
+
+    // Los IDs salen del generador de Post, que comparte con Hibernate los bloques de posts_seq;
+    // la sesión solo se abre al agotarse el bloque, no en cada submit
+    private long nextId() {
+        idLock.lock();
+        try {
+            if (idNext == idBlock.length) {
+                try (StatelessSession session = sessionFactory.openStatelessSession()) {
+                    for (int i = 0; i < idBlock.length; i++) {
+                        idBlock[i] = ((Number) idGenerator.generate((SharedSessionContractImplementor) session, null,
+                                null, EventType.INSERT)).longValue();
+                    }
+                }
+                idNext = 0;
+            }
+            return idBlock[idNext++];
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private String resolve(Map<Long, String> names, Long id, String resource,
+                           Function<Set<Long>, List<Object[]>> lookup) {
+        if (id == null) {
+            throw new ResourceNotFoundException(resource, "id", null);
+        }
+        String name = names.get(id);
+        if (name != null) {
+            return name;
+        }
+        for (Object[] row : lookup.apply(Set.of(id))) {
+            name = (String) row[1];
+        }
+        if (name == null) {
+            throw new ResourceNotFoundException(resource, "id", id);
+        }
+        if (names.size() >= maxCachedNames) {
+            names.clear();
+        }
+        names.put(id, name);
+        return name;
+    }
+}
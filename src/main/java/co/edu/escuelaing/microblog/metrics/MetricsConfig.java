@@ -0,0 +1,146 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import co.edu.escuelaing.microblog.ingest.PostWriteBehind;
+import co.edu.escuelaing.microblog.security.JwtTokenProvider;
+import co.edu.escuelaing.microblog.security.PooledPasswordEncoder;
+import co.edu.escuelaing.microblog.service.PostCountCache;
+import co.edu.escuelaing.microblog.service.PurgeJob;
+import co.edu.escuelaing.microblog.service.RecentTimelineIndex;
+import co.edu.escuelaing.microblog.threading.ConnectionGate;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas propias de la aplicación, publicadas junto a las de Spring Boot en /actuator/prometheus.
+ *
+ * Spring Boot ya instrumenta los controladores (http.server.requests), los repositorios
+ * (spring.data.repository.invocations), Hibernate, Hikari y la JVM, y
+ * QueryStatsReporter publica las sentencias de cada petición. Aquí se añaden las cachés
+ * en memoria, el pool de BCrypt, la cola de conexiones, la ingesta asíncrona de posts y
+ * la purga de borrados. Todas las etiquetas tienen un conjunto de valores fijo.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(PostCountCache postCountCache, RecentTimelineIndex timelineIndex,
+                                    JwtTokenProvider tokenProvider) {
+        return registry -> {
+            bindCache(registry, "post-counts", postCountCache,
+                    PostCountCache::getHitCount, PostCountCache::getMissCount, PostCountCache::size);
+            bindCache(registry, "recent-timelines", timelineIndex,
+                    RecentTimelineIndex::getHitCount, RecentTimelineIndex::getMissCount, RecentTimelineIndex::getStreamCount);
+            bindCache(registry, "verified-tokens", tokenProvider, JwtTokenProvider::getVerifiedCacheHitCount,
+                    JwtTokenProvider::getVerifiedCacheMissCount, JwtTokenProvider::getVerifiedCacheSize);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashMetrics(PooledPasswordEncoder passwordEncoder) {
+        return registry -> {
+            FunctionTimer.builder("auth.password.hash", passwordEncoder,
+                            PooledPasswordEncoder::getCompletedCount, PooledPasswordEncoder::getTotalHashNanos,
+                            TimeUnit.NANOSECONDS)
+                    .description("BCrypt hashes computed on the password hashing pool")
+                    .register(registry);
+            Gauge.builder("auth.password.hash.queued", passwordEncoder, PooledPasswordEncoder::getQueueDepth)
+                    .description("Hashing tasks waiting for a pool thread")
+                    .register(registry);
+            Gauge.builder("auth.password.hash.active", passwordEncoder, PooledPasswordEncoder::getActiveCount)
+                    .description("Pool threads currently hashing")
+                    .register(registry);
+            FunctionCounter.builder("auth.password.hash.rejected", passwordEncoder, PooledPasswordEncoder::getRejectedCount)
+                    .description("Hashing requests turned away because the queue was full")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionGateMetrics(DataSource dataSource) {
+        // El DataSource puede llegar envuelto además por el proxy de QueryStats
+        ConnectionGate gate = DataSourceUnwrapper.unwrap(dataSource, ConnectionGate.class);
+        return registry -> {
+            if (gate == null) {
+                return;
+            }
+            Gauge.builder("datasource.gate.permits", gate, ConnectionGate::getMaxPermits)
+                    .description("Connections the gate lets out at once")
+                    .register(registry);
+            Gauge.builder("datasource.gate.active", gate, ConnectionGate::getActiveConnections)
+                    .description("Connections currently borrowed through the gate")
+                    .register(registry);
+            Gauge.builder("datasource.gate.waiting", gate, ConnectionGate::getWaitingThreads)
+                    .description("Threads queued for a connection")
+                    .register(registry);
+            FunctionCounter.builder("datasource.gate.timeouts", gate, ConnectionGate::getTimeoutCount)
+                    .description("Connection requests that timed out in the gate queue")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder writeBehindMetrics(PostWriteBehind writeBehind) {
+        return registry -> {
+            Gauge.builder("posts.write-behind.queued", writeBehind, PostWriteBehind::getQueueDepth)
+                    .description("Accepted posts waiting for the writer")
+                    .register(registry);
+            Gauge.builder("posts.write-behind.capacity", writeBehind, PostWriteBehind::getCapacity)
+                    .description("Posts the write-behind buffer can hold")
+                    .register(registry);
+            FunctionCounter.builder("posts.write-behind.accepted", writeBehind, PostWriteBehind::getAcceptedCount)
+                    .description("Posts accepted with 202 for asynchronous writing")
+                    .register(registry);
+            FunctionCounter.builder("posts.write-behind.rejected", writeBehind, PostWriteBehind::getRejectedCount)
+                    .description("Posts turned away because the buffer was full")
+                    .register(registry);
+            FunctionCounter.builder("posts.write-behind.written", writeBehind, PostWriteBehind::getWrittenCount)
+                    .description("Accepted posts committed to the database")
+                    .register(registry);
+            FunctionCounter.builder("posts.write-behind.failed", writeBehind, PostWriteBehind::getFailedCount)
+                    .description("Accepted posts dropped because their insert failed")
+                    .register(registry);
+            FunctionCounter.builder("posts.write-behind.batches", writeBehind, PostWriteBehind::getBatchCount)
+                    .description("Transactions committed by the writer")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder purgeMetrics(PurgeJob purgeJob) {
+        return registry -> {
+            Gauge.builder("purge.pending", purgeJob, PurgeJob::getPendingCount)
+                    .description("Deleted streams and users whose posts are queued or being purged")
+                    .register(registry);
+            FunctionCounter.builder("purge.posts", purgeJob, PurgeJob::getPurgedPostCount)
+                    .description("Posts removed by the background purge")
+                    .register(registry);
+        };
+    }
+
+    // Mismos nombres que los binders de caché de Micrometer: cache.gets{result=hit|miss} y cache.size
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache, ToDoubleFunction<T> hits,
+                                      ToDoubleFunction<T> misses, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("cache.gets", cache, hits)
+                .tags("cache", name, "result", "hit")
+                .description("Lookups served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", cache, misses)
+                .tags("cache", name, "result", "miss")
+                .description("Lookups that fell through to the source")
+                .register(registry);
+        Gauge.builder("cache.size", cache, size)
+                .tags("cache", name)
+                .description("Entries held by the cache")
+                .register(registry);
+    }
+}
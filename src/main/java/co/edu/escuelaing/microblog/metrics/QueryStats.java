@@ -0,0 +1,120 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sentencias SQL, filas y tiempo JDBC acumulados en el hilo actual.
+ *
+ * Un ámbito se abre con start() y se cierra con stop(). Los ámbitos se anidan: al cerrar
+ * uno, lo contado se suma al que estaba abierto, así una prueba puede medir una petición
+ * de MockMvc completa aunque el filtro de la petición abra su propio ámbito. También se
+ * recuerda cuántas veces se ejecutó cada sentencia, para detectar consultas N+1.
+ */
+public final class QueryStats {
+
+    // Sentencias distintas cuyo número de ejecuciones se recuerda por ámbito
+    private static final int MAX_TRACKED_SQL = 128;
+
+    private static final ThreadLocal<QueryStats> current = new ThreadLocal<>();
+
+    private final QueryStats parent;
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+    private long queryStartNanos;
+
+    private QueryStats(QueryStats parent) {
+        this.parent = parent;
+    }
+
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats(current.get());
+        current.set(stats);
+        return stats;
+    }
+
+    // Cierra el ámbito más interno y lo devuelve, o null si el hilo no estaba contando
+    public static QueryStats stop() {
+        QueryStats stats = current.get();
+        if (stats == null) {
+            return null;
+        }
+        if (stats.parent == null) {
+            current.remove();
+        } else {
+            current.set(stats.parent);
+            stats.parent.add(stats);
+        }
+        return stats;
+    }
+
+    static QueryStats current() {
+        return current.get();
+    }
+
+    void queryStarted() {
+        queryStartNanos = System.nanoTime();
+    }
+
+    void queryFinished(String sql, long affectedRows) {
+        statements++;
+        rows += affectedRows;
+        jdbcNanos += System.nanoTime() - queryStartNanos;
+        track(sql, 1);
+    }
+
+    void rowRead() {
+        rows++;
+    }
+
+    /**
+     * Ejecuciones de sentencias (un lote cuenta como una)
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Filas leídas de los ResultSet más filas afectadas por las escrituras
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Sentencia ejecutada más veces en el ámbito, o null si no se ejecutó ninguna
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> top = null;
+        for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+            if (top == null || entry.getValue() > top.getValue()) {
+                top = entry;
+            }
+        }
+        return top;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d statements, %d rows, %.3f ms JDBC", statements, rows, jdbcNanos / 1_000_000.0);
+    }
+
+    private void add(QueryStats child) {
+        statements += child.statements;
+        rows += child.rows;
+        jdbcNanos += child.jdbcNanos;
+        child.executions.forEach(this::track);
+    }
+
+    private void track(String sql, int count) {
+        if (executions.size() < MAX_TRACKED_SQL || executions.containsKey(sql)) {
+            executions.merge(sql, count, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Abre un ámbito de QueryStats para cada petición a /api/** y lo publica al terminar.
+ *
+ * Con app.jdbc.query-stats.header-enabled (pensado para desarrollo y pruebas) la respuesta
+ * lleva además las cabeceras X-Query-Count, X-Query-Rows y X-Query-Time-Ms. Se escriben
+ * justo antes de que la respuesta se confirme, así que incluyen las consultas perezosas
+ * que se disparan al serializar el cuerpo sin tener que guardarlo en memoria; en cuerpos
+ * grandes, que se confirman a mitad de la serialización, las métricas son las exactas.
+ */
+@Component
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Query-Count";
+    public static final String ROWS_HEADER = "X-Query-Rows";
+    public static final String TIME_HEADER = "X-Query-Time-Ms";
+
+    static final String METRIC_PREFIX = "http.server.requests";
+
+    @Autowired
+    private QueryStatsReporter reporter;
+
+    @Value("${app.jdbc.query-stats.header-enabled:false}")
+    private boolean headerEnabled = false;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !reporter.isEnabled() || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.start();
+        StatsHeaderResponse statsResponse = headerEnabled ? new StatsHeaderResponse(response, stats) : null;
+        try {
+            chain.doFilter(request, statsResponse != null ? statsResponse : response);
+        } finally {
+            QueryStats.stop();
+            if (statsResponse != null) {
+                statsResponse.writeHeaders();
+            }
+            // Una respuesta asíncrona sigue en otro hilo: lo contado aquí no la representa
+            if (!request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+                reporter.report(METRIC_PREFIX, Tags.of("method", request.getMethod(), "uri", uri),
+                        request.getMethod() + " " + uri, stats);
+            }
+        }
+    }
+
+    private static final class StatsHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final QueryStats stats;
+        private boolean written;
+
+        StatsHeaderResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(ROWS_HEADER, String.valueOf(stats.getRows()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", stats.getJdbcNanos() / 1_000_000.0));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve el DataSource de la aplicación con datasource-proxy para contar sentencias,
+ * filas y tiempo JDBC por petición cuando app.jdbc.query-stats.enabled está activo.
+ *
+ * Se aplica después de ConnectionGatePostProcessor, de modo que el proxy queda por fuera
+ * y la puerta sigue viendo el pool de Hikari para dimensionarse.
+ */
+@Component
+public class QueryStatsPostProcessor implements BeanPostProcessor, Ordered {
+
+    @Value("${app.jdbc.query-stats.enabled:true}")
+    private boolean enabled = true;
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+
+        QueryStatsListener listener = new QueryStatsListener();
+        return ProxyDataSourceBuilder.create(beanName, dataSource)
+                .listener(listener)
+                .methodListener(listener)
+                .proxyResultSet()
+                .build();
+    }
+}
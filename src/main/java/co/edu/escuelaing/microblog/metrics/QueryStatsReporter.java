@@ -0,0 +1,86 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica el QueryStats de cada petición como métricas y avisa en el log de las
+ * peticiones que superan el presupuesto de sentencias o repiten una misma sentencia.
+ *
+ * Para un prefijo como http.server.requests se registran:
+ *   prefijo.queries  sentencias por petición
+ *   prefijo.rows     filas leídas o afectadas por petición
+ *   prefijo.jdbc     tiempo dentro de JDBC por petición
+ */
+@Component
+public class QueryStatsReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatsReporter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.jdbc.query-stats.enabled:true}")
+    private boolean enabled = true;
+
+    // 0 desactiva el aviso
+    @Value("${app.jdbc.query-stats.statement-budget:20}")
+    private int statementBudget = 20;
+
+    // Ejecuciones de una misma sentencia a partir de las cuales se sospecha un N+1; 0 lo desactiva
+    @Value("${app.jdbc.query-stats.repeat-threshold:5}")
+    private int repeatThreshold = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra las métricas de una petición ya terminada
+     *
+     * @param prefix  prefijo de los nombres de las métricas
+     * @param tags    etiquetas de baja cardinalidad (método y plantilla de la ruta)
+     * @param request descripción de la petición para el log
+     */
+    public void report(String prefix, Tags tags, String request, QueryStats stats) {
+        if (!enabled || stats == null) {
+            return;
+        }
+
+        DistributionSummary.builder(prefix + ".queries")
+                .description("SQL statements executed while serving a request")
+                .baseUnit("statements")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder(prefix + ".rows")
+                .description("Rows read or written while serving a request")
+                .baseUnit("rows")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getRows());
+        Timer.builder(prefix + ".jdbc")
+                .description("Time spent executing SQL while serving a request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        if (statementBudget > 0 && stats.getStatements() > statementBudget) {
+            logger.warn("{} exceeded the statement budget of {}: {}", request, statementBudget, stats);
+        }
+        Map.Entry<String, Integer> repeated = stats.getMostRepeated();
+        if (repeatThreshold > 0 && repeated != null && repeated.getValue() >= repeatThreshold) {
+            logger.warn("{} ran the same statement {} times, possible N+1: {}", request, repeated.getValue(), repeated.getKey());
+        }
+    }
+}
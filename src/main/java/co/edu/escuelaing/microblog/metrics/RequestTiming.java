@@ -0,0 +1,147 @@
+package co.edu.escuelaing.microblog.metrics;
+
+/**
+ * Marcas de tiempo de las fases de una petición, guardadas en el hilo que la atiende.
+ *
+ * Cada punto de la petición solo toma un System.nanoTime(): el filtro de autenticación
+ * suma su tiempo a auth, el interceptor marca el inicio y el fin del controlador y
+ * ServerTimingBodyAdvice el inicio de la serialización, que acaba al completar la
+ * petición. El tiempo de base de datos se lee del QueryStats de la petición. Las fases
+ * no se solapan: service es el tiempo del controlador sin la base de datos ni la
+ * autenticación que ocurran dentro de él, y serialization descuenta las consultas
+ * perezosas que se disparen al escribir el cuerpo.
+ */
+public final class RequestTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<RequestTiming> current = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long authNanos;
+    private long serializationNanos;
+
+    private QueryStats queryStats;
+    private long handlerStartNanos;
+    private long handlerStartJdbc;
+    private long handlerStartAuth;
+    private long serviceNanos = -1;
+
+    private long serializationStartNanos;
+    private long serializationStartJdbc;
+
+    private RequestTiming() {
+    }
+
+    public static RequestTiming start() {
+        RequestTiming timing = new RequestTiming();
+        current.set(timing);
+        return timing;
+    }
+
+    public static void stop() {
+        current.remove();
+    }
+
+    public static RequestTiming current() {
+        return current.get();
+    }
+
+    /**
+     * Suma a auth el tiempo de verificar credenciales desde startNanos
+     */
+    public static void authFinished(long startNanos) {
+        RequestTiming timing = current.get();
+        if (timing != null) {
+            timing.authNanos += System.nanoTime() - startNanos;
+        }
+    }
+
+    public void handlerStarted() {
+        queryStats = QueryStats.current();
+        handlerStartAuth = authNanos;
+        handlerStartJdbc = jdbcNanos();
+        handlerStartNanos = System.nanoTime();
+    }
+
+    // El servicio termina al empezar a serializar o, si no hay cuerpo JSON, al volver del controlador
+    public void handlerFinished() {
+        if (handlerStartNanos != 0 && serviceNanos < 0) {
+            serviceNanos = System.nanoTime() - handlerStartNanos
+                    - (jdbcNanos() - handlerStartJdbc) - (authNanos - handlerStartAuth);
+        }
+    }
+
+    public void serializationStarted() {
+        handlerFinished();
+        serializationStartJdbc = jdbcNanos();
+        serializationStartNanos = System.nanoTime();
+    }
+
+    public void serializationFinished() {
+        if (serializationStartNanos != 0) {
+            serializationNanos += System.nanoTime() - serializationStartNanos - (jdbcNanos() - serializationStartJdbc);
+            serializationStartNanos = 0;
+        }
+    }
+
+    public long getAuthNanos() {
+        return authNanos;
+    }
+
+    public long getServiceNanos() {
+        return Math.max(0, serviceNanos);
+    }
+
+    public long getDbNanos() {
+        return jdbcNanos();
+    }
+
+    // Incluye la serialización en curso, por si la respuesta se confirma antes de que termine
+    public long getSerializationNanos() {
+        if (serializationStartNanos == 0) {
+            return serializationNanos;
+        }
+        return serializationNanos + System.nanoTime() - serializationStartNanos - (jdbcNanos() - serializationStartJdbc);
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Valor de la cabecera Server-Timing, en milisegundos
+     */
+    public String toHeader() {
+        StringBuilder header = new StringBuilder(96);
+        append(header, "auth", authNanos);
+        append(header, "service", getServiceNanos());
+        if (queryStats != null) {
+            append(header, "db", jdbcNanos());
+        }
+        append(header, "serialization", getSerializationNanos());
+        append(header, "total", getElapsedNanos());
+        return header.toString();
+    }
+
+    private long jdbcNanos() {
+        return queryStats == null ? 0 : queryStats.getJdbcNanos();
+    }
+
+    // Milisegundos con tres decimales sin pasar por String.format
+    private static void append(StringBuilder header, String name, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        long micros = Math.max(0, nanos) / 1_000;
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        long fraction = micros % 1_000;
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
@@ -0,0 +1,77 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra en el log el desglose de RequestTiming de cada petición terminada.
+ *
+ * Los tiempos van en el mensaje y como pares clave-valor de SLF4J (request, status,
+ * total_ms, auth_ms, service_ms, db_ms, serialization_ms), de modo que un encoder JSON
+ * los publica como campos y se pueden filtrar sin parsear el texto. Las peticiones lentas
+ * se registran en INFO y el resto en DEBUG.
+ */
+@Component
+public class RequestTimingReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestTimingReporter.class);
+
+    @Value("${app.timing.enabled:true}")
+    private boolean enabled = true;
+
+    // Cabecera Server-Timing en las respuestas; revela tiempos internos, así que se puede apagar
+    @Value("${app.timing.header-enabled:true}")
+    private boolean headerEnabled = true;
+
+    @Value("${app.timing.slow-request-ms:500}")
+    private long slowRequestMillis = 500;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isHeaderEnabled() {
+        return enabled && headerEnabled;
+    }
+
+    /**
+     * Registra los tiempos de una petición ya terminada
+     *
+     * @param request descripción de la petición (método y plantilla de la ruta)
+     */
+    public void report(String request, int status, RequestTiming timing) {
+        if (!enabled || timing == null) {
+            return;
+        }
+        long elapsedNanos = timing.getElapsedNanos();
+        Level level = elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(slowRequestMillis) ? Level.INFO : Level.DEBUG;
+        if (!logger.isEnabledForLevel(level)) {
+            return;
+        }
+
+        double total = millis(elapsedNanos);
+        double auth = millis(timing.getAuthNanos());
+        double service = millis(timing.getServiceNanos());
+        double db = millis(timing.getDbNanos());
+        double serialization = millis(timing.getSerializationNanos());
+        logger.atLevel(level)
+                .addKeyValue("request", request)
+                .addKeyValue("status", status)
+                .addKeyValue("total_ms", total)
+                .addKeyValue("auth_ms", auth)
+                .addKeyValue("service_ms", service)
+                .addKeyValue("db_ms", db)
+                .addKeyValue("serialization_ms", serialization)
+                .log("{} -> {} total_ms={} auth_ms={} service_ms={} db_ms={} serialization_ms={}",
+                        request, status, total, auth, service, db, serialization);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+}
@@ -0,0 +1,106 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Abre un RequestTiming para cada petición a /api/** y añade a la respuesta la cabecera
+ * Server-Timing con las fases auth, service, db, serialization y total.
+ *
+ * Va antes de la cadena de Spring Security para que auth y total la incluyan. La cabecera
+ * se escribe justo antes de que la respuesta se confirme: con cuerpos que caben en el búfer
+ * de la respuesta eso ocurre al terminar y lleva todas las fases, pero un cuerpo mayor se
+ * confirma a mitad de la serialización. Si el cliente acepta trailers (TE: trailers) el
+ * desglose va en cambio como trailer, que se envía ya con la serialización completa.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RequestTimingReporter reporter;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !reporter.isEnabled() || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.start();
+        TimingHeaderResponse timingResponse = null;
+        if (reporter.isHeaderEnabled() && !sendAsTrailer(request, response, timing)) {
+            timingResponse = new TimingHeaderResponse(response, timing);
+        }
+        try {
+            chain.doFilter(request, timingResponse != null ? timingResponse : response);
+        } finally {
+            timing.handlerFinished();
+            RequestTiming.stop();
+            if (timingResponse != null) {
+                timingResponse.writeHeader();
+            }
+            if (!request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                reporter.report(request.getMethod() + " " + (pattern == null ? "UNKNOWN" : pattern),
+                        response.getStatus(), timing);
+            }
+        }
+    }
+
+    private static boolean sendAsTrailer(HttpServletRequest request, HttpServletResponse response,
+                                         RequestTiming timing) {
+        String te = request.getHeader(HttpHeaders.TE);
+        if (te == null || !te.toLowerCase(Locale.ROOT).contains("trailers")) {
+            return false;
+        }
+        try {
+            response.setTrailerFields(() -> Map.of(RequestTiming.HEADER, timing.toHeader()));
+        } catch (IllegalStateException e) {
+            // HTTP/1.0 o un contenedor sin trailers: se usa la cabecera
+            return false;
+        }
+        response.setHeader(HttpHeaders.TRAILER, RequestTiming.HEADER);
+        return true;
+    }
+
+    private static final class TimingHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean written;
+
+        TimingHeaderResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeader();
+        }
+
+        void writeHeader() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            timing.handlerFinished();
+            setHeader(RequestTiming.HEADER, timing.toHeader());
+        }
+    }
+}
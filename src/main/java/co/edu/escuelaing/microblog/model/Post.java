@@ -9,11 +9,17 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts",
+        indexes = {
+                @Index(name = "idx_posts_stream_created_id", columnList = "stream_id, created_at, id"),
+                @Index(name = "idx_posts_user_created_id", columnList = "user_id, created_at, id")
+        })
 @EntityListeners(AuditingEntityListener.class)
 public class Post {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // IDs de secuencia reservados en bloques de 50: sin un ida y vuelta por inserción, Hibernate las agrupa en lotes
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -1,20 +1,25 @@
 package co.edu.escuelaing.microblog.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.util.ArrayList;
 import java.util.List;
 import java.time.LocalDateTime;
+import org.hibernate.annotations.SQLRestriction;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 @Entity
 @Table(name = "streams")
+// Los streams borrados dejan de verse al instante; PurgeJob borra después sus posts y la fila
+@SQLRestriction("deleted_at IS NULL")
 @EntityListeners(AuditingEntityListener.class)
 public class Stream {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "streams_seq")
+    @SequenceGenerator(name = "streams_seq", sequenceName = "streams_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -27,7 +32,12 @@ public class Stream {
     @CreatedDate
     private LocalDateTime createdAt;
 
-    @OneToMany(mappedBy = "stream", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
+    // Sin cascada: los posts se borran por bloques con PurgeJob, no cargándolos uno a uno en la sesión
+    @JsonIgnore
+    @OneToMany(mappedBy = "stream", fetch = FetchType.LAZY)
     private List<Post> posts = new ArrayList<>();
 
     // Constructores
@@ -72,6 +82,14 @@ public class Stream {
         this.createdAt = createdAt;
     }
 
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     public List<Post> getPosts() {
         return posts;
     }
@@ -1,9 +1,12 @@
 package co.edu.escuelaing.microblog.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.SQLRestriction;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -13,9 +16,12 @@ import java.util.Set;
                 @UniqueConstraint(columnNames = "username"),
                 @UniqueConstraint(columnNames = "email")
         })
+// Un usuario borrado no puede iniciar sesión ni aparece en las consultas mientras se purgan sus posts
+@SQLRestriction("deleted_at IS NULL")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -31,7 +37,12 @@ public class User {
     @Size(max = 120)
     private String password;
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
+    // Sin cascada: PurgeJob borra los posts del usuario por bloques
+    @JsonIgnore
+    @OneToMany(mappedBy = "user")
     private Set<Post> posts = new HashSet<>();
 
     // Constructores
@@ -77,6 +88,14 @@ public class User {
         this.password = password;
     }
 
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     public Set<Post> getPosts() {
         return posts;
     }
@@ -0,0 +1,81 @@
+package co.edu.escuelaing.microblog.ratelimit;
+
+import co.edu.escuelaing.microblog.exception.TooManyRequestsException;
+import co.edu.escuelaing.microblog.security.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aplica los límites declarados con @RateLimited y expone la cuota restante en las
+ * cabeceras X-RateLimit-Limit y X-RateLimit-Remaining.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    // Sal para que el id de usuario N y una IP con el mismo hash no compartan cubeta
+    private static final long USER_KEY_SALT = 0x5DEECE66DL;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.rate-limit.stripes:65536}")
+    private int stripes;
+
+    // Por nombre: los endpoints anotados con el mismo nombre comparten cubetas
+    private final Map<String, TokenBucketRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimited rateLimited = handlerMethod.getMethodAnnotation(RateLimited.class);
+        if (rateLimited == null) {
+            return true;
+        }
+
+        TokenBucketRateLimiter limiter = limiters.computeIfAbsent(rateLimited.value(),
+                name -> createLimiter(rateLimited));
+        long result = limiter.tryAcquire(clientKey(rateLimited.key(), request));
+
+        response.setIntHeader("X-RateLimit-Limit", limiter.getCapacity());
+        if (result < 0) {
+            response.setIntHeader("X-RateLimit-Remaining", 0);
+            long retryAfterSeconds = Math.max(1, (-result + 999) / 1000);
+            throw new TooManyRequestsException("Rate limit exceeded, please slow down", retryAfterSeconds);
+        }
+        response.setHeader("X-RateLimit-Remaining", Long.toString(result));
+        return true;
+    }
+
+    private TokenBucketRateLimiter createLimiter(RateLimited rateLimited) {
+        String prefix = "app.rate-limit." + rateLimited.value() + ".";
+        int capacity = environment.getProperty(prefix + "capacity", Integer.class, rateLimited.capacity());
+        double refillPerSecond = environment.getProperty(prefix + "refill-per-second", Double.class,
+                rateLimited.refillPerSecond());
+        return new TokenBucketRateLimiter(capacity, refillPerSecond, stripes);
+    }
+
+    private long clientKey(RateLimited.Key key, HttpServletRequest request) {
+        if (key != RateLimited.Key.IP) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+                return principal.getId() ^ USER_KEY_SALT;
+            }
+            if (key == RateLimited.Key.USER && authentication != null) {
+                return TokenBucketRateLimiter.keyOf(authentication.getName()) ^ USER_KEY_SALT;
+            }
+        }
+        return TokenBucketRateLimiter.keyOf(request.getRemoteAddr());
+    }
+}
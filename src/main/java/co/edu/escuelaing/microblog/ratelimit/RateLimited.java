@@ -0,0 +1,44 @@
+package co.edu.escuelaing.microblog.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limita la frecuencia con la que un cliente puede invocar un endpoint.
+ *
+ * Los valores de la anotación son los predeterminados; pueden sobrescribirse con
+ * app.rate-limit.{value}.capacity y app.rate-limit.{value}.refill-per-second.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    /**
+     * Nombre del límite, usado para su configuración. Los métodos con el mismo
+     * nombre descuentan de la misma cuota de cada cliente
+     */
+    String value();
+
+    /**
+     * Máximo de peticiones seguidas que admite un cliente
+     */
+    int capacity() default 20;
+
+    /**
+     * Peticiones que recupera cada cliente por segundo
+     */
+    double refillPerSecond() default 1.0;
+
+    /**
+     * Cómo se identifica al cliente
+     */
+    Key key() default Key.USER_OR_IP;
+
+    enum Key {
+        USER,
+        IP,
+        USER_OR_IP
+    }
+}
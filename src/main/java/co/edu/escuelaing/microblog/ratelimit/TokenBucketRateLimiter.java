@@ -0,0 +1,119 @@
+package co.edu.escuelaing.microblog.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token bucket por cliente sin bloqueos globales ni asignaciones por petición.
+ *
+ * Cada cliente se asigna por hash a una franja de un AtomicLongArray. El estado de
+ * la franja cabe en un long: los 40 bits altos guardan el instante de la última
+ * recarga (milisegundos desde la creación del limitador) y los 24 bajos los tokens
+ * disponibles en punto fijo con 8 bits de fracción. La recarga se calcula de forma
+ * perezosa al consumir y el estado se actualiza con CAS. Dos clientes que caigan en
+ * la misma franja comparten cubeta, lo que solo puede hacer el límite más estricto.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int FRACTION_BITS = 8;
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long ONE_TOKEN = 1L << FRACTION_BITS;
+
+    // Capacidad máxima representable en los bits de tokens
+    public static final int MAX_CAPACITY = (int) (TOKEN_MASK >> FRACTION_BITS);
+
+    private final AtomicLongArray stripes;
+    private final int mask;
+    private final int capacity;
+    private final long capacityUnits;
+    private final long refillUnitsPerSecond;
+    private final long fillMillis;
+    private final long origin;
+
+    /**
+     * @param stripes número de franjas; se redondea a la siguiente potencia de dos
+     */
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int stripes) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("refillPerSecond must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.capacity = capacity;
+        this.capacityUnits = capacity * ONE_TOKEN;
+        this.refillUnitsPerSecond = Math.max(1, Math.round(refillPerSecond * ONE_TOKEN));
+        this.fillMillis = (capacityUnits * 1000L + refillUnitsPerSecond - 1) / refillUnitsPerSecond;
+        // El reloj arranca desplazado un llenado completo: una franja sin usar (estado 0) está llena
+        this.origin = System.nanoTime() - (fillMillis + 1) * 1_000_000L;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Intenta consumir un token del cliente. Devuelve los tokens enteros restantes
+     * (mayor o igual a cero) si se concedió, o el negativo de los milisegundos que
+     * faltan para el siguiente token si se rechazó.
+     */
+    public long tryAcquire(long key) {
+        int index = (int) mix(key) & mask;
+        long now = (System.nanoTime() - origin) / 1_000_000L;
+
+        while (true) {
+            long state = stripes.get(index);
+            long last = state >>> TOKEN_BITS;
+            long tokens = state & TOKEN_MASK;
+
+            // Recarga perezosa: solo se avanza el reloj por el tiempo convertido en tokens
+            long elapsed = Math.min(now - last, fillMillis);
+            if (elapsed > 0 && tokens < capacityUnits) {
+                long added = elapsed * refillUnitsPerSecond / 1000L;
+                if (tokens + added >= capacityUnits) {
+                    tokens = capacityUnits;
+                    last = now;
+                } else if (added > 0) {
+                    tokens += added;
+                    last += added * 1000L / refillUnitsPerSecond;
+                }
+            } else if (tokens >= capacityUnits) {
+                last = now;
+            }
+
+            if (tokens < ONE_TOKEN) {
+                long missing = ONE_TOKEN - tokens;
+                long waitMillis = (missing * 1000L + refillUnitsPerSecond - 1) / refillUnitsPerSecond;
+                return -Math.max(1, waitMillis - Math.max(0, now - last));
+            }
+
+            long remaining = tokens - ONE_TOKEN;
+            long next = (last << TOKEN_BITS) | remaining;
+            if (stripes.compareAndSet(index, state, next)) {
+                return remaining >> FRACTION_BITS;
+            }
+        }
+    }
+
+    /**
+     * Clave de un cliente identificado por texto (por ejemplo, su IP)
+     */
+    public static long keyOf(CharSequence value) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // Mezcla de bits de SplitMix64 para repartir claves consecutivas entre franjas
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
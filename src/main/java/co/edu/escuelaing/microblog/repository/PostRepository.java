@@ -1,13 +1,127 @@
 package co.edu.escuelaing.microblog.repository;
 
-import co.edu.escuelaing.microblog.model.*;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.model.Post;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
-    Page<Post> findByStream(Stream stream, Pageable pageable);
-    Page<Post> findByUser(User user, Pageable pageable);
-}
\ No newline at end of file
+
+    // Proyección con JOIN sobre users y streams: un único SELECT por página, sin proxies perezosos
+    String SUMMARY_SELECT = "SELECT new co.edu.escuelaing.microblog.dto.PostSummary("
+            + "p.id, p.content, p.createdAt, u.id, u.username, s.id, s.name)"
+            + " FROM Post p JOIN p.user u JOIN p.stream s";
+
+    // Omite, como SUMMARY_SELECT, los posts de usuarios y streams borrados que la purga aún no
+    // eliminó. El filtro es explícito: Hibernate poda los JOIN que el COUNT no usa, y con ellos
+    // su @SQLRestriction
+    String SUMMARY_COUNT = "SELECT COUNT(p) FROM Post p JOIN p.user u JOIN p.stream s"
+            + " WHERE u.deletedAt IS NULL AND s.deletedAt IS NULL";
+
+    @Query(value = SUMMARY_SELECT, countQuery = SUMMARY_COUNT)
+    Page<PostSummary> findAllSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE p.stream.id = :streamId",
+            countQuery = SUMMARY_COUNT + " AND p.stream.id = :streamId")
+    Page<PostSummary> findSummariesByStreamId(@Param("streamId") Long streamId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE p.user.id = :userId",
+            countQuery = SUMMARY_COUNT + " AND p.user.id = :userId")
+    Page<PostSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Variantes Slice: Spring Data pide size + 1 filas para calcular hasNext y no ejecuta COUNT(*)
+    @Query(SUMMARY_SELECT)
+    Slice<PostSummary> sliceAllSummaries(Pageable pageable);
+
+    // El orden lo fija el Pageable; PostService añade id DESC como desempate al pedir los más recientes
+    @Query(SUMMARY_SELECT + " WHERE p.stream.id = :streamId")
+    Slice<PostSummary> sliceSummariesByStreamId(@Param("streamId") Long streamId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE p.user.id = :userId")
+    Slice<PostSummary> sliceSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Conteos de los totales paginados: solo los posts visibles, igual que los listados
+    @Query(SUMMARY_COUNT)
+    long countSummaries();
+
+    @Query(SUMMARY_COUNT + " AND p.stream.id = :streamId")
+    long countSummariesByStreamId(@Param("streamId") Long streamId);
+
+    @Query(SUMMARY_COUNT + " AND p.user.id = :userId")
+    long countSummariesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.stream.id = :streamId")
+    long countByStreamId(@Param("streamId") Long streamId);
+
+    @Query("SELECT COUNT(p) FROM Post p WHERE p.user.id = :userId")
+    long countByUserId(@Param("userId") Long userId);
+
+    // Consultas por keyset: recorren el índice (stream_id|user_id, created_at, id) sin OFFSET ni COUNT
+    @Query(SUMMARY_SELECT + " WHERE p.stream.id = :streamId ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findFeedByStream(@Param("streamId") Long streamId, Limit limit);
+
+    @Query(SUMMARY_SELECT + " WHERE p.stream.id = :streamId"
+            + " AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))"
+            + " ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findFeedByStreamBefore(@Param("streamId") Long streamId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Limit limit);
+
+    // Sincronización incremental: posts posteriores al cursor, del más antiguo al más reciente
+    @Query(SUMMARY_SELECT + " WHERE p.stream.id = :streamId"
+            + " AND (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id))"
+            + " ORDER BY p.createdAt ASC, p.id ASC")
+    List<PostSummary> findFeedByStreamAfter(@Param("streamId") Long streamId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Limit limit);
+
+    @Query(SUMMARY_SELECT + " WHERE p.user.id = :userId ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findFeedByUser(@Param("userId") Long userId, Limit limit);
+
+    @Query(SUMMARY_SELECT + " WHERE p.user.id = :userId"
+            + " AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id))"
+            + " ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findFeedByUserBefore(@Param("userId") Long userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Limit limit);
+
+    // Exportación: cursor de solo avance sobre el índice (stream_id, created_at, id). Ordenar también por
+    // stream_id deja que la base de datos recorra el índice en orden sin ordenar el resultado completo.
+    // Las proyecciones no se gestionan en la sesión, así que la memoria no crece con las filas leídas
+    @Query(SUMMARY_SELECT + " WHERE p.stream.id = :streamId AND p.createdAt >= :from AND p.createdAt < :to"
+            + " ORDER BY p.stream.id ASC, p.createdAt ASC, p.id ASC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<PostSummary> streamByStream(@Param("streamId") Long streamId,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    // Purga por bloques: los IDs salen del índice del stream o del usuario y se borran con un único DELETE.
+    // p.stream.id y p.user.id se leen de la clave foránea, sin el filtro de borrado de Stream y User
+    @Query("SELECT p.id FROM Post p WHERE p.stream.id = :streamId")
+    List<Long> findIdsByStreamId(@Param("streamId") Long streamId, Limit limit);
+
+    @Query("SELECT p.id FROM Post p WHERE p.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Post p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
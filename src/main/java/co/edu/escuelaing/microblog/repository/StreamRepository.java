@@ -2,11 +2,27 @@ package co.edu.escuelaing.microblog.repository;
 
 import co.edu.escuelaing.microblog.model.Stream;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StreamRepository extends JpaRepository<Stream, Long> {
     Optional<Stream> findByName(String name);
     Boolean existsByName(String name);
-}
\ No newline at end of file
+
+    @Query("SELECT s.id, s.name FROM Stream s WHERE s.id IN :ids")
+    List<Object[]> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Las consultas nativas no llevan el filtro de borrado de la entidad: ven los streams pendientes de purga
+    @Query(value = "SELECT id FROM streams WHERE deleted_at IS NOT NULL ORDER BY deleted_at", nativeQuery = true)
+    List<Long> findDeletedIds();
+
+    @Modifying
+    @Query(value = "DELETE FROM streams WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int deleteMarked(@Param("id") Long id);
+}
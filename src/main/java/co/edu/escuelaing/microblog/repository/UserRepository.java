@@ -2,12 +2,33 @@ package co.edu.escuelaing.microblog.repository;
 
 import co.edu.escuelaing.microblog.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-    Boolean existsByUsername(String username);
-    Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Incluyen a los usuarios borrados pendientes de purga: su nombre y email siguen ocupados hasta entonces
+    @Query(value = "SELECT COUNT(*) > 0 FROM users WHERE username = :username", nativeQuery = true)
+    Boolean existsByUsername(@Param("username") String username);
+
+    @Query(value = "SELECT COUNT(*) > 0 FROM users WHERE email = :email", nativeQuery = true)
+    Boolean existsByEmail(@Param("email") String email);
+
+    // Pares [id, username] de los usuarios que existen, para resolver las referencias de una importación
+    @Query("SELECT u.id, u.username FROM User u WHERE u.id IN :ids")
+    List<Object[]> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM users WHERE deleted_at IS NOT NULL ORDER BY deleted_at", nativeQuery = true)
+    List<Long> findDeletedIds();
+
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int deleteMarked(@Param("id") Long id);
+}
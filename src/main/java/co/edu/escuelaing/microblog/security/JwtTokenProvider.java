@@ -5,13 +5,17 @@ import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -19,22 +23,56 @@ import java.util.function.Function;
 public class JwtTokenProvider {
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+    static final String VERSION_CLAIM = "ver";
+
     @Autowired
     private JwtConfig jwtConfig;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize = 10000;
+
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+    private volatile VerifiedTokenCache verifiedTokens;
+
     // Generate a token for a user
     public String generateToken(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal userPrincipal) {
+            return generateToken(userPrincipal);
+        }
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         return generateToken(userDetails.getUsername());
     }
 
+    // Generate a token carrying the user id and roles, so requests need no user lookup
+    public String generateToken(UserPrincipal userPrincipal) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", userPrincipal.getUsername());
+        claims.put(USER_ID_CLAIM, userPrincipal.getId());
+        claims.put(ROLES_CLAIM, userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        if (tokenVersionRegistry != null && tokenVersionRegistry.isEnabled()) {
+            claims.put(VERSION_CLAIM, tokenVersionRegistry.currentVersion(userPrincipal.getId()));
+        }
+        return buildToken(claims);
+    }
+
     // Generate a token based on username
     public String generateToken(String username) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtConfig.getExpirationMs());
-
         Map<String, Object> claims = new HashMap<>();
         claims.put("sub", username);
+        return buildToken(claims);
+    }
+
+    private String buildToken(Map<String, Object> claims) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtConfig.getExpirationMs());
 
         return Jwts.builder()
                 .setClaims(claims)
@@ -44,6 +82,20 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    // Build the principal from the token claims; null for tokens issued without a user id
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (userId == null) {
+            return null;
+        }
+
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return new UserPrincipal(userId, claims.getSubject(), null, null, authorities);
+    }
+
     // Get username from the token
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, claims -> claims.getSubject());
@@ -55,20 +107,25 @@ public class JwtTokenProvider {
         return claimsResolver.apply(claims);
     }
 
-    // Get all claims from token
+    // Get all claims from token, verifying the signature only if it is not cached
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = verifiedTokens().get(token);
+        if (claims == null) {
+            claims = parser().parseClaimsJws(token).getBody();
+            verifiedTokens().put(token, claims);
+        }
+        return claims;
     }
 
-    // Check if token is valid
-    public boolean validateToken(String token) {
+    // Parse and validate the token once, returning its claims or null if it is not valid
+    public Claims parseToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
+            Claims claims = getAllClaimsFromToken(token);
+            if (!isCurrentVersion(claims)) {
+                logger.error("Revoked JWT token");
+                return null;
+            }
+            return claims;
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -80,12 +137,80 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+    // Tokens issued before the user's last revocation are rejected when versioning is enabled
+    private boolean isCurrentVersion(Claims claims) {
+        if (tokenVersionRegistry == null || !tokenVersionRegistry.isEnabled()) {
+            return true;
+        }
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (userId == null) {
+            return true;
+        }
+        Integer version = claims.get(VERSION_CLAIM, Integer.class);
+        return tokenVersionRegistry.isCurrent(userId, version == null ? 0 : version);
+    }
+
+    // Check if token is valid
+    public boolean validateToken(String token) {
+        return parseToken(token) != null;
+    }
+
+    // Verified-token cache statistics, all zero until the first token is checked
+    public long getVerifiedCacheHitCount() {
+        VerifiedTokenCache cache = verifiedTokens;
+        return cache == null ? 0 : cache.hitCount();
+    }
+
+    public long getVerifiedCacheMissCount() {
+        VerifiedTokenCache cache = verifiedTokens;
+        return cache == null ? 0 : cache.missCount();
+    }
+
+    public int getVerifiedCacheSize() {
+        VerifiedTokenCache cache = verifiedTokens;
+        return cache == null ? 0 : cache.size();
+    }
+
+    // Parser built once with the precomputed key; JwtParser is immutable and thread-safe
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            synchronized (this) {
+                current = parser;
+                if (current == null) {
+                    current = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+                    parser = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private VerifiedTokenCache verifiedTokens() {
+        VerifiedTokenCache current = verifiedTokens;
+        if (current == null) {
+            synchronized (this) {
+                current = verifiedTokens;
+                if (current == null) {
+                    current = new VerifiedTokenCache(verifiedCacheSize);
+                    verifiedTokens = current;
+                }
+            }
+        }
+        return current;
     }
 
-    // Get signing key
+    // Get signing key, derived from the secret only once
     private Key getSigningKey() {
-        byte[] keyBytes = jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key key = signingKey;
+        if (key == null) {
+            byte[] keyBytes = jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signingKey = key;
+        }
+        return key;
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package co.edu.escuelaing.microblog.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,12 +12,12 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import jakarta.servlet.DispatcherType;
 import java.util.Arrays;
 
 @Configuration
@@ -32,9 +33,17 @@ public class SecurityConfig {
         return new JwtAuthenticationFilter();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Value("${app.auth.hash-pool.threads:0}")
+    private int hashPoolThreads;
+
+    @Value("${app.auth.hash-pool.queue-size:64}")
+    private int hashPoolQueueSize;
+
+    // BCrypt en un pool acotado propio para que los picos de login no ocupen todos los hilos
+    @Bean(destroyMethod = "shutdown")
+    public PooledPasswordEncoder passwordEncoder() {
+        int threads = hashPoolThreads > 0 ? hashPoolThreads : Runtime.getRuntime().availableProcessors();
+        return new PooledPasswordEncoder(new BCryptPasswordEncoder(), threads, hashPoolQueueSize);
     }
 
     @Bean
@@ -50,13 +59,17 @@ public class SecurityConfig {
                 .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
+                        // La petición ya se autorizó al entrar; el filtro JWT no se repite al volver de una exportación
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/h2-console/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll() // /actuator/prometheus requiere usuario
                         .requestMatchers("/", "/index.html").permitAll()
                         .requestMatchers("/css/**", "/js/**").permitAll()
                         .requestMatchers("/*.js", "/*.css").permitAll()
                         .requestMatchers("/assets/**").permitAll()
                         .requestMatchers("/favicon.ico").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/posts/stream/*/export").authenticated() // Las exportaciones completas requieren usuario
                         .requestMatchers(HttpMethod.GET, "/api/posts/**").permitAll() // Permitir GET a posts
                         .requestMatchers(HttpMethod.GET, "/api/streams/**").permitAll() // Permitir GET a streams
                         .anyRequest().authenticated()
@@ -76,7 +89,9 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://mifrontbucket.s3-website-us-east-1.amazonaws.com")); // En producción, específica el origen exacto
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "If-None-Match"));
+        // Cabeceras de respuesta que el front-end necesita leer: el validador de la sincronización y los límites
+        configuration.setExposedHeaders(Arrays.asList("ETag", "Retry-After", "X-RateLimit-Limit", "X-RateLimit-Remaining"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,40 @@
+package co.edu.escuelaing.microblog.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version of each user, used to revoke JWTs without a lookup per request.
+ *
+ * Tokens carry the version they were issued with in the "ver" claim; bumping a user's
+ * version invalidates every token issued before. Versions live only in memory, so a
+ * restart forgets revocations of tokens that have not expired yet.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    @Value("${app.jwt.token-versioning:true}")
+    private boolean enabled = true;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Version that newly issued tokens for the user must carry
+    public int currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    // Invalidate every token issued so far for the user
+    public void revoke(Long userId) {
+        versions.merge(userId, 1, Integer::sum);
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return !enabled || tokenVersion >= currentVersion(userId);
+    }
+}
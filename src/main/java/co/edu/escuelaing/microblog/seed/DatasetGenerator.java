@@ -0,0 +1,258 @@
+package co.edu.escuelaing.microblog.seed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Genera una población sintética de usuarios, streams y posts con inserciones JDBC por lotes.
+ *
+ * La actividad está sesgada con distribuciones de Zipf: el usuario y el stream de menor
+ * ID son los que más posts reciben, y la cola larga casi no tiene actividad. Con la
+ * misma semilla se generan exactamente los mismos autores, streams y contenidos; las
+ * fechas son relativas al momento de la carga. Los rangos de IDs se reservan antes de
+ * insertar, adelantando las secuencias de Hibernate hasta después de ellos, así que se
+ * puede cargar sobre una base que ya tiene datos o que está recibiendo escrituras. Cada
+ * lote se confirma por separado; si la carga falla, los lotes ya confirmados se quedan.
+ */
+public class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    private static final long PROGRESS_INTERVAL = 1_000_000;
+
+    private static final String[] WORDS = {
+            "hoy", "el", "la", "un", "una", "microblog", "stream", "post", "nuevo", "gran", "día",
+            "noche", "café", "código", "java", "spring", "lambda", "nube", "datos", "rápido", "lento",
+            "equipo", "reunión", "idea", "proyecto", "prueba", "error", "arreglo", "versión", "lanzamiento",
+            "escuela", "clase", "taller", "arquitectura", "servicio", "usuario", "mensaje", "feed", "cola",
+            "evento", "memoria", "latencia", "carga", "base", "consulta", "índice", "caché", "hilo", "red",
+            "con", "sin", "para", "por", "muy", "más", "menos", "bien", "mal", "otra", "vez", "ya", "aquí"
+    };
+
+    private final DataSource dataSource;
+    private int users = 1000;
+    private int streams = 100;
+    private long posts = 100_000;
+    private long seed = 42;
+    private double userExponent = 1.1;
+    private double streamExponent = 1.2;
+    private int batchSize = 1000;
+    private int days = 365;
+    private String passwordHash;
+
+    public DatasetGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public DatasetGenerator users(int users) {
+        this.users = users;
+        return this;
+    }
+
+    public DatasetGenerator streams(int streams) {
+        this.streams = streams;
+        return this;
+    }
+
+    public DatasetGenerator posts(long posts) {
+        this.posts = posts;
+        return this;
+    }
+
+    public DatasetGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public DatasetGenerator userExponent(double userExponent) {
+        this.userExponent = userExponent;
+        return this;
+    }
+
+    public DatasetGenerator streamExponent(double streamExponent) {
+        this.streamExponent = streamExponent;
+        return this;
+    }
+
+    public DatasetGenerator batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public DatasetGenerator days(int days) {
+        this.days = days;
+        return this;
+    }
+
+    /**
+     * Hash que se guarda como contraseña de todos los usuarios generados
+     */
+    public DatasetGenerator passwordHash(String passwordHash) {
+        this.passwordHash = passwordHash;
+        return this;
+    }
+
+    /**
+     * Resumen de una carga: rangos de IDs generados y tiempo total
+     */
+    public record Result(long firstUserId, int users, long firstStreamId, int streams, long firstPostId, long posts,
+                         long elapsedNanos) {
+    }
+
+    public Result generate() throws SQLException {
+        if (users < 1 || streams < 1 || posts < 0 || batchSize < 1) {
+            throw new IllegalArgumentException("users and streams must be positive, posts non-negative");
+        }
+        if (passwordHash == null) {
+            throw new IllegalStateException("passwordHash is required");
+        }
+
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long firstUserId = reserveIds(connection, "users", users);
+                long firstStreamId = reserveIds(connection, "streams", streams);
+                long firstPostId = reserveIds(connection, "posts", posts);
+                LocalDateTime end = LocalDateTime.now();
+
+                insertUsers(connection, firstUserId);
+                insertStreams(connection, firstStreamId, end, random);
+                insertPosts(connection, firstPostId, firstUserId, firstStreamId, end, random);
+                connection.commit();
+
+                return new Result(firstUserId, users, firstStreamId, streams, firstPostId, posts,
+                        System.nanoTime() - start);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void insertUsers(Connection connection, long firstId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (id, username, email, password) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < users; i++) {
+                long id = firstId + i;
+                statement.setLong(1, id);
+                statement.setString(2, "user" + id);
+                statement.setString(3, "user" + id + "@example.com");
+                statement.setString(4, passwordHash);
+                addToBatch(connection, statement, i + 1);
+            }
+            flush(connection, statement);
+        }
+        logger.info("Generated {} users starting at id {}", users, firstId);
+    }
+
+    private void insertStreams(Connection connection, long firstId, LocalDateTime end, SplittableRandom random)
+            throws SQLException {
+        Timestamp createdAt = Timestamp.valueOf(end.minusDays(days));
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO streams (id, name, description, created_at) VALUES (?, ?, ?, ?)")) {
+            StringBuilder description = new StringBuilder(200);
+            for (int i = 0; i < streams; i++) {
+                long id = firstId + i;
+                statement.setLong(1, id);
+                statement.setString(2, "stream-" + id);
+                statement.setString(3, text(description, random, 200));
+                statement.setTimestamp(4, createdAt);
+                addToBatch(connection, statement, i + 1);
+            }
+            flush(connection, statement);
+        }
+        logger.info("Generated {} streams starting at id {}", streams, firstId);
+    }
+
+    // Los posts se reparten uniformemente en el periodo y se insertan en orden cronológico
+    private void insertPosts(Connection connection, long firstId, long firstUserId, long firstStreamId,
+                             LocalDateTime end, SplittableRandom random) throws SQLException {
+        ZipfSampler userSampler = new ZipfSampler(users, userExponent);
+        ZipfSampler streamSampler = new ZipfSampler(streams, streamExponent);
+        long periodMillis = TimeUnit.DAYS.toMillis(days);
+        long startMillis = Timestamp.valueOf(end).getTime() - periodMillis;
+        long start = System.nanoTime();
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO posts (id, content, created_at, user_id, stream_id) VALUES (?, ?, ?, ?, ?)")) {
+            StringBuilder content = new StringBuilder(140);
+            for (long i = 0; i < posts; i++) {
+                long offset = posts == 1 ? periodMillis : (long) ((double) periodMillis * i / (posts - 1));
+                statement.setLong(1, firstId + i);
+                statement.setString(2, text(content, random, 140));
+                statement.setTimestamp(3, new Timestamp(startMillis + offset));
+                statement.setLong(4, firstUserId + userSampler.sample(random) - 1);
+                statement.setLong(5, firstStreamId + streamSampler.sample(random) - 1);
+                addToBatch(connection, statement, i + 1);
+
+                if ((i + 1) % PROGRESS_INTERVAL == 0) {
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    logger.info("Generated {} of {} posts ({} posts/s)", i + 1, posts, Math.round((i + 1) / seconds));
+                }
+            }
+            flush(connection, statement);
+        }
+        logger.info("Generated {} posts starting at id {}", posts, firstId);
+    }
+
+    private void addToBatch(Connection connection, PreparedStatement statement, long count) throws SQLException {
+        statement.addBatch();
+        if (count % batchSize == 0) {
+            flush(connection, statement);
+        }
+    }
+
+    private static void flush(Connection connection, PreparedStatement statement) throws SQLException {
+        statement.executeBatch();
+        connection.commit();
+    }
+
+    // Frase de 3 palabras como mínimo y como máximo maxLength caracteres
+    private static String text(StringBuilder builder, SplittableRandom random, int maxLength) {
+        builder.setLength(0);
+        int target = 20 + random.nextInt(maxLength - 19);
+        while (builder.length() < target) {
+            if (builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        if (builder.length() > maxLength) {
+            builder.setLength(maxLength);
+        }
+        return builder.toString();
+    }
+
+    // Con pooled-lo el valor de la secuencia es el primer ID de un bloque que nadie más usará;
+    // el rango empieza ahí (o después del último ID de la tabla) y la secuencia salta al final
+    // del rango. Solo los bloques que otra instancia pida entre ambas sentencias podrían solaparse.
+    private static long reserveIds(Connection connection, String table, long count) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            long first;
+            try (ResultSet resultSet = statement.executeQuery("SELECT GREATEST(NEXT VALUE FOR " + table + "_seq, "
+                    + "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + table + "))")) {
+                resultSet.next();
+                first = resultSet.getLong(1);
+            }
+            statement.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + (first + count));
+            return first;
+        }
+    }
+}
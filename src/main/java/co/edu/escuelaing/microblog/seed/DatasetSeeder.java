@@ -0,0 +1,86 @@
+package co.edu.escuelaing.microblog.seed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Carga el conjunto de datos sintético al arrancar con el perfil "seed", antes de que
+ * la aplicación empiece a atender peticiones y de que se precaliente el índice de timelines.
+ *
+ * Todos los usuarios generados tienen la contraseña app.seed.password, para que las
+ * pruebas de carga puedan iniciar sesión como user{id}.
+ */
+@Component
+@Profile(DatasetSeeder.PROFILE)
+public class DatasetSeeder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetSeeder.class);
+
+    public static final String PROFILE = "seed";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.seed.users:100000}")
+    private int users = 100000;
+
+    @Value("${app.seed.streams:1000}")
+    private int streams = 1000;
+
+    @Value("${app.seed.posts:1000000}")
+    private long posts = 1000000;
+
+    @Value("${app.seed.random-seed:42}")
+    private long randomSeed = 42;
+
+    @Value("${app.seed.user-exponent:1.1}")
+    private double userExponent = 1.1;
+
+    @Value("${app.seed.stream-exponent:1.2}")
+    private double streamExponent = 1.2;
+
+    @Value("${app.seed.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @Value("${app.seed.days:365}")
+    private int days = 365;
+
+    @Value("${app.seed.password:password}")
+    private String password = "password";
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        logger.info("Seeding {} users, {} streams and {} posts (seed {})", users, streams, posts, randomSeed);
+
+        DatasetGenerator.Result result = new DatasetGenerator(dataSource)
+                .users(users)
+                .streams(streams)
+                .posts(posts)
+                .seed(randomSeed)
+                .userExponent(userExponent)
+                .streamExponent(streamExponent)
+                .batchSize(batchSize)
+                .days(days)
+                .passwordHash(passwordEncoder.encode(password))
+                .generate();
+
+        double seconds = result.elapsedNanos() / 1e9;
+        logger.info("Seeded users {}..{}, streams {}..{} and {} posts in {} s ({} rows/s)",
+                result.firstUserId(), result.firstUserId() + result.users() - 1,
+                result.firstStreamId(), result.firstStreamId() + result.streams() - 1,
+                result.posts(), Math.round(seconds),
+                Math.round((result.users() + result.streams() + result.posts()) / seconds));
+    }
+}
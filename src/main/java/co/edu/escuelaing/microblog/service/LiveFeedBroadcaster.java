@@ -0,0 +1,348 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.dto.CursorPage;
+import co.edu.escuelaing.microblog.dto.FeedCursor;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.event.PostEvent;
+import co.edu.escuelaing.microblog.event.StreamDeletedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Difunde los posts nuevos de cada stream a los clientes suscritos por Server-Sent Events.
+ *
+ * Cada suscriptor tiene un buffer acotado: si el cliente no consume a tiempo los
+ * posts que no caben se descartan, y tras demasiados descartes seguidos se cierra
+ * la conexión para que el cliente se resincronice. El envío se hace en un pool
+ * propio, de modo que un commit nunca espera a la red.
+ *
+ * Cada evento lleva como id el cursor del post; al reconectar, el navegador lo devuelve
+ * en Last-Event-ID y se reenvían los posts publicados mientras estuvo desconectado antes
+ * de los del buffer. Un envío que pasa de app.live.send-timeout-ms se abandona: se cierra
+ * la conexión y otro hilo ocupa su lugar en el pool mientras el contenedor agota la
+ * escritura, de modo que unas pocas conexiones atascadas no detienen la difusión.
+ */
+@Component
+public class LiveFeedBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveFeedBroadcaster.class);
+
+    // Estados del envío en curso de un suscriptor
+    private static final int IDLE = 0;
+    private static final int SENDING = 1;
+    private static final int ABANDONED = 2;
+
+    @Autowired
+    private PostService postService;
+
+    @Value("${app.live.buffer-size:64}")
+    private int bufferSize = 64;
+
+    @Value("${app.live.max-dropped:256}")
+    private int maxDropped = 256;
+
+    @Value("${app.live.heartbeat-ms:15000}")
+    private long heartbeatMs = 15000;
+
+    @Value("${app.live.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    @Value("${app.live.sender-threads:4}")
+    private int senderThreads = 4;
+
+    @Value("${app.live.send-timeout-ms:5000}")
+    private long sendTimeoutMs = 5000;
+
+    @Value("${app.live.max-replay:1000}")
+    private int maxReplay = 1000;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    // Hilos del pool que siguen bloqueados en un envío abandonado
+    private final AtomicInteger stalledSenders = new AtomicInteger();
+    private final ReentrantLock senderResize = new ReentrantLock();
+
+    private ExecutorService sender;
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Sin máximo efectivo: el tamaño lo fija setCorePoolSize al abandonar y recuperar envíos
+        sender = new ThreadPoolExecutor(senderThreads, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "live-feed-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-feed-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long checkMs = Math.max(sendTimeoutMs / 2, 1);
+        heartbeat.scheduleAtFixedRate(this::abandonStalledSends, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+    }
+
+    /**
+     * Registra un nuevo suscriptor para los posts de un stream
+     */
+    public SseEmitter subscribe(Long streamId) {
+        return subscribe(streamId, null);
+    }
+
+    /**
+     * Registra un nuevo suscriptor para los posts de un stream. Con lastEventId (el cursor
+     * del último post recibido) primero se le envían los posts posteriores a ese cursor.
+     */
+    public SseEmitter subscribe(Long streamId, String lastEventId) {
+        // Un cursor mal formado se rechaza con 400 antes de registrar la suscripción
+        FeedCursor since = lastEventId == null ? null : FeedCursor.decode(lastEventId);
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(streamId, emitter, bufferSize);
+
+        // Los posts que lleguen durante la reposición esperan en el buffer
+        if (since != null) {
+            subscriber.draining.set(true);
+        }
+        subscribers.compute(streamId, (id, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        if (since != null) {
+            sender.execute(() -> replay(subscriber, lastEventId));
+        }
+        return emitter;
+    }
+
+    /**
+     * Número de suscriptores activos de un stream
+     */
+    public int subscriberCount(Long streamId) {
+        Set<Subscriber> set = subscribers.get(streamId);
+        return set == null ? 0 : set.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostEvent(PostEvent event) {
+        if (event.getType() != PostEvent.Type.CREATED) {
+            return;
+        }
+
+        PostSummary post = event.getPost();
+        Set<Subscriber> set = subscribers.get(post.getStreamId());
+        if (set == null) {
+            return;
+        }
+
+        for (Subscriber subscriber : set) {
+            if (subscriber.buffer.offer(post)) {
+                subscriber.dropped.set(0);
+            } else if (subscriber.dropped.incrementAndGet() > maxDropped) {
+                logger.debug("Closing slow live feed subscriber on stream {}", post.getStreamId());
+                subscriber.emitter.complete();
+                unsubscribe(subscriber);
+                continue;
+            }
+            schedule(subscriber);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStreamDeleted(StreamDeletedEvent event) {
+        Set<Subscriber> set = subscribers.remove(event.getStreamId());
+        if (set != null) {
+            set.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber, false));
+        }
+    }
+
+    // Envía los posts posteriores a lastEventId por páginas; si son más de maxReplay se cierra
+    // la conexión y el navegador reconecta con el id del último enviado para seguir
+    private void replay(Subscriber subscriber, String lastEventId) {
+        String cursor = lastEventId;
+        int replayed = 0;
+        try {
+            CursorPage<PostSummary> page;
+            do {
+                page = postService.getPostsSince(subscriber.streamId, cursor, PostService.MAX_FEED_SIZE);
+                for (PostSummary post : page.getContent()) {
+                    send(subscriber, postEvent(post));
+                    subscriber.replayedUpTo = FeedCursor.of(post);
+                }
+                replayed += page.getContent().size();
+                cursor = page.getNextCursor();
+            } while (page.isHasNext() && replayed < maxReplay);
+
+            if (page.isHasNext()) {
+                subscriber.emitter.complete();
+                unsubscribe(subscriber);
+                return;
+            }
+        } catch (IOException | RuntimeException ex) {
+            logger.debug("Live feed replay on stream {} failed: {}", subscriber.streamId, ex.getMessage());
+            subscriber.emitter.complete();
+            unsubscribe(subscriber);
+            return;
+        }
+        drain(subscriber, false);
+    }
+
+    private void drain(Subscriber subscriber, boolean heartbeat) {
+        try {
+            if (heartbeat) {
+                send(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+            PostSummary post;
+            while ((post = subscriber.buffer.poll()) != null) {
+                // Los posts del buffer que ya salieron en la reposición no se repiten
+                FeedCursor replayedUpTo = subscriber.replayedUpTo;
+                if (replayedUpTo == null || FeedCursor.of(post).compareTo(replayedUpTo) > 0) {
+                    send(subscriber, postEvent(post));
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            unsubscribe(subscriber);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // Un post pudo llegar entre el último poll y la liberación del flag
+        if (!subscriber.buffer.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    // Marca el envío en curso para que abandonStalledSends pueda cortarlo; si se abandonó
+    // mientras tanto, este hilo deja de sobrar en el pool y el suscriptor ya está cerrado
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendStartedNanos = System.nanoTime();
+        subscriber.sendState.set(SENDING);
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            if (!subscriber.sendState.compareAndSet(SENDING, IDLE)) {
+                resizeSenders(-1);
+            }
+        }
+        if (subscriber.sendState.get() == ABANDONED) {
+            throw new IllegalStateException("Live feed send was abandoned");
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder postEvent(PostSummary post) {
+        return SseEmitter.event()
+                .name("post")
+                .id(FeedCursor.of(post).encode())
+                .data(post);
+    }
+
+    // Los suscriptores ocupados enviando posts no necesitan heartbeat
+    private void sendHeartbeats() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                if (subscriber.draining.compareAndSet(false, true)) {
+                    sender.execute(() -> drain(subscriber, true));
+                }
+            }
+        }
+    }
+
+    // Un hilo bloqueado en una conexión atascada no vuelve hasta que el contenedor agota la
+    // escritura: se cierra la conexión y se añade un hilo al pool para que la difusión siga
+    private void abandonStalledSends() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber subscriber : set) {
+                if (subscriber.sendState.get() == SENDING && now - subscriber.sendStartedNanos > timeoutNanos
+                        && subscriber.sendState.compareAndSet(SENDING, ABANDONED)) {
+                    logger.debug("Abandoning live feed send stalled for more than {} ms on stream {}",
+                            sendTimeoutMs, subscriber.streamId);
+                    resizeSenders(1);
+                    unsubscribe(subscriber);
+                    subscriber.emitter.completeWithError(new TimeoutException("Live feed send timed out"));
+                }
+            }
+        }
+    }
+
+    private void resizeSenders(int delta) {
+        stalledSenders.addAndGet(delta);
+        if (sender instanceof ThreadPoolExecutor pool) {
+            senderResize.lock();
+            try {
+                pool.setCorePoolSize(senderThreads + stalledSenders.get());
+            } finally {
+                senderResize.unlock();
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.streamId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static final class Subscriber {
+        private final Long streamId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<PostSummary> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicInteger dropped = new AtomicInteger();
+        private final AtomicInteger sendState = new AtomicInteger(IDLE);
+        private volatile long sendStartedNanos;
+        private volatile FeedCursor replayedUpTo;
+
+        Subscriber(Long streamId, SseEmitter emitter, int bufferSize) {
+            this.streamId = streamId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
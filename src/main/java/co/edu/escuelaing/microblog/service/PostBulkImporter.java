@@ -0,0 +1,238 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.dto.BulkImportResponse;
+import co.edu.escuelaing.microblog.dto.BulkPostRequest;
+import co.edu.escuelaing.microblog.dto.BulkPostResult;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.event.PostEvent;
+import co.edu.escuelaing.microblog.exception.BadRequestException;
+import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import co.edu.escuelaing.microblog.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importación masiva de posts desde NDJSON o un array JSON.
+ *
+ * Los elementos se leen en streaming y se procesan por bloques: cada bloque resuelve sus
+ * usuarios y streams con una consulta IN por tabla (los ya vistos en bloques anteriores
+ * no se vuelven a consultar), toma los IDs del mismo generador de secuencia que usa
+ * Hibernate e inserta los posts válidos con un único lote JDBC. Cada bloque es una
+ * transacción: si falla, sus elementos se marcan como fallidos y los bloques anteriores
+ * se conservan. Los PostEvent se publican como en createPost y se entregan al confirmar.
+ */
+@Service
+public class PostBulkImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostBulkImporter.class);
+
+    private static final String INSERT_POST =
+            "INSERT INTO posts (id, content, created_at, user_id, stream_id) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.posts.bulk.max-items:50000}")
+    private int maxItems = 50000;
+
+    @Value("${app.posts.bulk.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    /**
+     * Lee los posts del stream (NDJSON o array JSON) y los importa.
+     * Un documento mal formado o con más de max-items elementos se rechaza entero
+     * antes de escribir nada; los errores de cada post van en su resultado.
+     */
+    public BulkImportResponse importPosts(InputStream body) throws IOException {
+        return importPosts(readItems(body));
+    }
+
+    public BulkImportResponse importPosts(List<BulkPostRequest> items) {
+        if (items.size() > maxItems) {
+            throw new BadRequestException("A bulk import accepts at most " + maxItems + " posts");
+        }
+
+        long start = System.nanoTime();
+        List<BulkPostResult> results = new ArrayList<>(items.size());
+        Map<Long, String> usernames = new HashMap<>();
+        Map<Long, String> streamNames = new HashMap<>();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<BulkPostRequest> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+            int offset = from;
+            try {
+                results.addAll(transaction.execute(status ->
+                        importChunk(chunk, offset, usernames, streamNames)));
+            } catch (DataAccessException e) {
+                logger.warn("Bulk import chunk at {} failed: {}", offset, e.getMostSpecificCause().getMessage());
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(BulkPostResult.failed(offset + i, "Could not store post: "
+                            + e.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+
+        BulkImportResponse response = new BulkImportResponse(results);
+        logger.info("Bulk import of {} posts: {} created, {} failed in {} ms", items.size(),
+                response.getCreated(), response.getFailed(), (System.nanoTime() - start) / 1_000_000);
+        return response;
+    }
+
+    private List<BulkPostResult> importChunk(List<BulkPostRequest> chunk, int offset,
+                                             Map<Long, String> usernames, Map<Long, String> streamNames) {
+        resolveNames(chunk, usernames, streamNames);
+
+        List<BulkPostResult> results = new ArrayList<>(chunk.size());
+        List<PostSummary> rows = new ArrayList<>(chunk.size());
+        BeforeExecutionGenerator ids = postIdGenerator();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            BulkPostRequest item = chunk.get(i);
+            String error = validate(item, usernames, streamNames);
+            if (error != null) {
+                results.add(BulkPostResult.failed(offset + i, error));
+                continue;
+            }
+            long id = ((Number) ids.generate(session, null, null, EventType.INSERT)).longValue();
+            LocalDateTime createdAt = item.getCreatedAt() != null ? item.getCreatedAt() : now;
+            rows.add(new PostSummary(id, item.getContent(), createdAt, item.getUserId(), usernames.get(item.getUserId()),
+                    item.getStreamId(), streamNames.get(item.getStreamId())));
+            results.add(BulkPostResult.created(offset + i, id));
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_POST, rows, rows.size(), (statement, post) -> {
+                statement.setLong(1, post.getId());
+                statement.setString(2, post.getContent());
+                statement.setTimestamp(3, Timestamp.valueOf(post.getCreatedAt()));
+                statement.setLong(4, post.getUserId());
+                statement.setLong(5, post.getStreamId());
+            });
+            for (PostSummary post : rows) {
+                eventPublisher.publishEvent(PostEvent.created(post));
+            }
+        }
+        return results;
+    }
+
+    // Solo se consultan los IDs que ningún bloque anterior resolvió; los inexistentes quedan como null
+    private void resolveNames(List<BulkPostRequest> chunk, Map<Long, String> usernames, Map<Long, String> streamNames) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> streamIds = new HashSet<>();
+        for (BulkPostRequest item : chunk) {
+            if (item != null && item.getUserId() != null && !usernames.containsKey(item.getUserId())) {
+                userIds.add(item.getUserId());
+            }
+            if (item != null && item.getStreamId() != null && !streamNames.containsKey(item.getStreamId())) {
+                streamIds.add(item.getStreamId());
+            }
+        }
+
+        if (!userIds.isEmpty()) {
+            userIds.forEach(id -> usernames.put(id, null));
+            for (Object[] row : userRepository.findUsernamesByIdIn(userIds)) {
+                usernames.put((Long) row[0], (String) row[1]);
+            }
+        }
+        if (!streamIds.isEmpty()) {
+            streamIds.forEach(id -> streamNames.put(id, null));
+            for (Object[] row : streamRepository.findNamesByIdIn(streamIds)) {
+                streamNames.put((Long) row[0], (String) row[1]);
+            }
+        }
+    }
+
+    // Las mismas reglas que createPost, con los mensajes de sus excepciones
+    private static String validate(BulkPostRequest item, Map<Long, String> usernames, Map<Long, String> streamNames) {
+        if (item == null) {
+            return "Post cannot be null";
+        }
+        if (item.getUserId() == null || usernames.get(item.getUserId()) == null) {
+            return "User not found with id : '" + item.getUserId() + "'";
+        }
+        if (item.getStreamId() == null || streamNames.get(item.getStreamId()) == null) {
+            return "Stream not found with id : '" + item.getStreamId() + "'";
+        }
+        if (item.getContent() == null || item.getContent().isEmpty()) {
+            return "Post content cannot be empty";
+        }
+        if (item.getContent().length() > 140) {
+            return "Post content exceeds 140 characters limit";
+        }
+        return null;
+    }
+
+    // MappingIterator recorre igual un array JSON que valores separados por saltos de línea
+    private List<BulkPostRequest> readItems(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(BulkPostRequest.class);
+        List<BulkPostRequest> items = new ArrayList<>();
+        try (MappingIterator<BulkPostRequest> iterator = reader.readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (items.size() == maxItems) {
+                    throw new BadRequestException("A bulk import accepts at most " + maxItems + " posts");
+                }
+                items.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed post at position " + items.size() + ": " + e.getOriginalMessage());
+        }
+        return items;
+    }
+
+    // El generador de la entidad Post: comparte con Hibernate los bloques reservados de posts_seq
+    private BeforeExecutionGenerator postIdGenerator() {
+        return (BeforeExecutionGenerator) entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(Post.class).getGenerator();
+    }
+}
@@ -0,0 +1,72 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché de conteos aproximados de posts. Los endpoints de tipo Slice no ejecutan
+ * COUNT(*); cuando el cliente quiere mostrar un total se sirve este valor, que se
+ * recalcula como máximo una vez por TTL y por clave.
+ */
+@Component
+public class PostCountCache {
+
+    private static final String ALL_KEY = "all";
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Value("${app.posts.count-cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public long countAll() {
+        return get(ALL_KEY, () -> postRepository.countSummaries());
+    }
+
+    public long countByStream(Long streamId) {
+        return get("stream:" + streamId, () -> postRepository.countSummariesByStreamId(streamId));
+    }
+
+    public long countByUser(Long userId) {
+        return get("user:" + userId, () -> postRepository.countSummariesByUserId(userId));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    private long get(String key, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            hits.increment();
+            return cached.value;
+        }
+        misses.increment();
+
+        long value = loader.getAsLong();
+        counts.put(key, new CachedCount(value, now + ttlMs));
+        return value;
+    }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+}
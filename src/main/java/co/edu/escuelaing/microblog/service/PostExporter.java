@@ -0,0 +1,172 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.exception.BadRequestException;
+import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
+import co.edu.escuelaing.microblog.exception.ServiceUnavailableException;
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Exporta los posts de un stream como NDJSON (un PostSummary por línea, del más antiguo
+ * al más reciente) con memoria constante.
+ *
+ * Las filas salen de un cursor JDBC dentro de una transacción de solo lectura y se escriben
+ * a medida que llegan, así que los primeros bytes se envían enseguida y el heap no depende
+ * del tamaño del stream. Cada exportación ocupa una conexión mientras dura, por eso hay un
+ * máximo de exportaciones simultáneas; las que no caben reciben 503 con Retry-After.
+ *
+ * En H2 el cursor solo es perezoso con LAZY_QUERY_EXECUTION, que se activa únicamente en la
+ * conexión de la exportación y se desactiva antes de devolverla al pool.
+ */
+@Service
+public class PostExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostExporter.class);
+
+    // Límites por defecto del rango; to por defecto es el inicio de la exportación
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.posts.export.flush-every:1000}")
+    private int flushEvery = 1000;
+
+    @Value("${app.posts.export.retry-after-seconds:30}")
+    private long retryAfterSeconds = 30;
+
+    @Value("${app.posts.export.timeout-ms:1800000}")
+    private long timeoutMs = 1_800_000;
+
+    private final Semaphore permits;
+
+    public PostExporter(@Value("${app.posts.export.max-concurrent:2}") int maxConcurrent) {
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Comprueba la petición y reserva un hueco de exportación; los errores se lanzan aquí,
+     * antes de que la respuesta empiece. El cuerpo devuelto escribe el NDJSON.
+     *
+     * @param from inicio del rango (inclusive) o null para desde el primer post
+     * @param to   fin del rango (exclusive) o null para hasta el momento de la llamada
+     */
+    public StreamingResponseBody export(Long streamId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from != null ? from : EARLIEST;
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("Export range must end after it starts");
+        }
+        if (!streamRepository.existsById(streamId)) {
+            throw new ResourceNotFoundException("Stream", "id", streamId);
+        }
+        if (!permits.tryAcquire()) {
+            throw new ServiceUnavailableException("Too many exports in progress, please retry", retryAfterSeconds);
+        }
+
+        return outputStream -> {
+            try {
+                write(streamId, start, end, outputStream);
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    /**
+     * Tiempo máximo de una exportación, que sustituye al límite general de las respuestas asíncronas
+     */
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    private void write(Long streamId, LocalDateTime from, LocalDateTime to, OutputStream outputStream)
+            throws IOException {
+        long begin = System.nanoTime();
+        // Se vacía el buffer por bloques y no tras cada línea
+        ObjectWriter writer = objectMapper.writerFor(PostSummary.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            // Cada valor termina en su propio salto de línea, sin el espacio que Jackson pone entre valores raíz
+            generator.setRootValueSeparator(null);
+            long rows = transaction.execute(status -> {
+                boolean lazy = setLazyExecution(true);
+                try (Stream<PostSummary> posts = postRepository.streamByStream(streamId, from, to)) {
+                    long count = 0;
+                    Iterator<PostSummary> iterator = posts.iterator();
+                    while (iterator.hasNext()) {
+                        writer.writeValue(generator, iterator.next());
+                        generator.writeRaw('\n');
+                        // La primera línea sale en cuanto se lee; después, por bloques
+                        if (++count == 1 || count % flushEvery == 0) {
+                            generator.flush();
+                        }
+                    }
+                    return count;
+                } catch (IOException e) {
+                    // El cliente cerró la conexión: se cierra el cursor y se devuelve la conexión
+                    throw new UncheckedIOException(e);
+                } finally {
+                    if (lazy) {
+                        setLazyExecution(false);
+                    }
+                }
+            });
+            logger.info("Exported {} posts of stream {} in {} ms", rows, streamId, (System.nanoTime() - begin) / 1_000_000);
+        } catch (UncheckedIOException e) {
+            logger.debug("Export of stream {} aborted: {}", streamId, e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+
+    // Sin LAZY_QUERY_EXECUTION, H2 materializa el resultado completo antes de devolver la primera fila
+    private boolean setLazyExecution(boolean lazy) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+                return false;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LAZY_QUERY_EXECUTION " + lazy);
+            }
+            return true;
+        }));
+    }
+}
@@ -1,5 +1,10 @@
 package co.edu.escuelaing.microblog.service;
 
+import co.edu.escuelaing.microblog.dto.CursorPage;
+import co.edu.escuelaing.microblog.dto.FeedCursor;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.dto.SliceResponse;
+import co.edu.escuelaing.microblog.event.PostEvent;
 import co.edu.escuelaing.microblog.model.Post;
 import co.edu.escuelaing.microblog.model.Stream;
 import co.edu.escuelaing.microblog.model.User;
@@ -9,14 +14,26 @@ import co.edu.escuelaing.microblog.repository.UserRepository;
 import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
 import co.edu.escuelaing.microblog.exception.BadRequestException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 
 @Service
 public class PostService {
 
+    public static final int DEFAULT_FEED_SIZE = 10;
+    public static final int MAX_FEED_SIZE = 100;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+    // Mismo orden que RecentTimelineIndex: a igual createdAt, el id más alto primero
+    private static final Sort NEWEST_FIRST_BY_ID = NEWEST_FIRST.and(Sort.by(Sort.Direction.DESC, "id"));
+
     @Autowired
     private PostRepository postRepository;
 
@@ -26,11 +43,20 @@ public class PostService {
     @Autowired
     private StreamRepository streamRepository;
 
+    @Autowired
+    private PostCountCache postCountCache;
+
+    @Autowired
+    private RecentTimelineIndex recentTimelineIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Obtiene todos los posts con paginación
      */
-    public Page<Post> getAllPosts(Pageable pageable) {
-        return postRepository.findAll(pageable);
+    public Page<PostSummary> getAllPosts(Pageable pageable) {
+        return postRepository.findAllSummaries(pageable);
     }
 
     /**
@@ -44,21 +70,186 @@ public class PostService {
     /**
      * Obtiene posts por stream con paginación
      */
-    public Page<Post> getPostsByStream(Long streamId, Pageable pageable) {
-        Stream stream = streamRepository.findById(streamId)
-                .orElseThrow(() -> new ResourceNotFoundException("Stream", "id", streamId));
+    public Page<PostSummary> getPostsByStream(Long streamId, Pageable pageable) {
+        if (!streamRepository.existsById(streamId)) {
+            throw new ResourceNotFoundException("Stream", "id", streamId);
+        }
 
-        return postRepository.findByStream(stream, pageable);
+        return postRepository.findSummariesByStreamId(streamId, pageable);
     }
 
     /**
      * Obtiene posts por usuario con paginación
      */
-    public Page<Post> getPostsByUser(Long userId, Pageable pageable) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+    public Page<PostSummary> getPostsByUser(Long userId, Pageable pageable) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+
+        return postRepository.findSummariesByUserId(userId, pageable);
+    }
+
+    /**
+     * Obtiene todos los posts como Slice, sin consulta de conteo
+     */
+    public SliceResponse<PostSummary> getAllPostsSlice(Pageable pageable, boolean withTotal) {
+        Long total = withTotal ? postCountCache.countAll() : null;
+        return SliceResponse.of(postRepository.sliceAllSummaries(pageable), total);
+    }
+
+    /**
+     * Obtiene posts por stream como Slice, sin consulta de conteo
+     */
+    public SliceResponse<PostSummary> getPostsByStreamSlice(Long streamId, Pageable pageable, boolean withTotal) {
+        // Las primeras páginas ordenadas del más reciente al más antiguo se sirven desde memoria
+        boolean newestFirst = pageable.isPaged() && NEWEST_FIRST.equals(pageable.getSort());
+        if (newestFirst) {
+            int size = pageable.getPageSize();
+            List<PostSummary> recent = recentTimelineIndex.readNewest(streamId, null, (int) pageable.getOffset(), size + 1);
+            if (recent != null) {
+                boolean hasNext = recent.size() > size;
+                Long total = withTotal ? postCountCache.countByStream(streamId) : null;
+                return new SliceResponse<>(hasNext ? recent.subList(0, size) : recent,
+                        pageable.getPageNumber(), size, hasNext, total);
+            }
+        }
+
+        if (!streamRepository.existsById(streamId)) {
+            throw new ResourceNotFoundException("Stream", "id", streamId);
+        }
+
+        // Sin desempate, los posts con el mismo createdAt podrían repetirse o saltarse entre páginas
+        Pageable query = newestFirst
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), NEWEST_FIRST_BY_ID)
+                : pageable;
+        Long total = withTotal ? postCountCache.countByStream(streamId) : null;
+        return SliceResponse.of(postRepository.sliceSummariesByStreamId(streamId, query), total);
+    }
+
+    /**
+     * Obtiene posts por usuario como Slice, sin consulta de conteo
+     */
+    public SliceResponse<PostSummary> getPostsByUserSlice(Long userId, Pageable pageable, boolean withTotal) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
 
-        return postRepository.findByUser(user, pageable);
+        Long total = withTotal ? postCountCache.countByUser(userId) : null;
+        return SliceResponse.of(postRepository.sliceSummariesByUserId(userId, pageable), total);
+    }
+
+    /**
+     * Obtiene el feed de un stream paginado por cursor (del más reciente al más antiguo)
+     */
+    public CursorPage<PostSummary> getFeedByStream(Long streamId, String cursor, int size) {
+        Limit limit = feedLimit(size);
+        FeedCursor after = cursor == null || cursor.isEmpty() ? null : FeedCursor.decode(cursor);
+
+        // Las páginas que caen dentro de la ventana reciente no consultan la base de datos
+        List<PostSummary> posts = recentTimelineIndex.readNewest(streamId, after, 0, limit.max());
+        if (posts != null) {
+            return toCursorPage(posts, limit.max() - 1);
+        }
+
+        if (!streamRepository.existsById(streamId)) {
+            throw new ResourceNotFoundException("Stream", "id", streamId);
+        }
+
+        if (after == null) {
+            posts = postRepository.findFeedByStream(streamId, limit);
+        } else {
+            posts = postRepository.findFeedByStreamBefore(streamId, after.getCreatedAt(), after.getId(), limit);
+        }
+
+        return toCursorPage(posts, limit.max() - 1);
+    }
+
+    /**
+     * Obtiene el feed de un usuario paginado por cursor (del más reciente al más antiguo)
+     */
+    public CursorPage<PostSummary> getFeedByUser(Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+
+        Limit limit = feedLimit(size);
+        List<PostSummary> posts;
+        if (cursor == null || cursor.isEmpty()) {
+            posts = postRepository.findFeedByUser(userId, limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            posts = postRepository.findFeedByUserBefore(userId, after.getCreatedAt(), after.getId(), limit);
+        }
+
+        return toCursorPage(posts, limit.max() - 1);
+    }
+
+    /**
+     * Obtiene los posts de un stream posteriores al cursor (del más antiguo al más reciente).
+     * El cursor siguiente es el del último post entregado, o el mismo si no hay novedades.
+     */
+    public CursorPage<PostSummary> getPostsSince(Long streamId, String cursor, int size) {
+        Limit limit = feedLimit(size);
+        FeedCursor since = FeedCursor.decode(cursor);
+
+        // Nada posterior a la marca de agua: se responde sin consultar la base de datos
+        if (since.compareTo(getHighWaterMark(streamId)) >= 0) {
+            return new CursorPage<>(List.of(), cursor, false);
+        }
+
+        List<PostSummary> posts = recentTimelineIndex.readNewer(streamId, since, limit.max());
+        if (posts == null) {
+            posts = postRepository.findFeedByStreamAfter(streamId, since.getCreatedAt(), since.getId(), limit);
+        }
+
+        int pageSize = limit.max() - 1;
+        boolean hasNext = posts.size() > pageSize;
+        List<PostSummary> content = hasNext ? posts.subList(0, pageSize) : posts;
+        String nextCursor = content.isEmpty() ? cursor : FeedCursor.of(content.get(content.size() - 1)).encode();
+
+        return new CursorPage<>(content, nextCursor, hasNext);
+    }
+
+    /**
+     * Obtiene el ETag del estado actual de un stream, derivado de su post más reciente
+     */
+    public String getStreamETag(Long streamId) {
+        return "\"" + streamId + "-" + getHighWaterMark(streamId).encode() + "\"";
+    }
+
+    // Cursor del post más reciente del stream; se resuelve en memoria si el stream está indexado
+    private FeedCursor getHighWaterMark(Long streamId) {
+        FeedCursor highWaterMark = recentTimelineIndex.highWaterMark(streamId);
+        if (highWaterMark != null) {
+            return highWaterMark;
+        }
+
+        if (!streamRepository.existsById(streamId)) {
+            throw new ResourceNotFoundException("Stream", "id", streamId);
+        }
+
+        List<PostSummary> newest = postRepository.findFeedByStream(streamId, Limit.of(1));
+        return newest.isEmpty() ? FeedCursor.ORIGIN : FeedCursor.of(newest.get(0));
+    }
+
+    // Se pide un elemento extra para saber si existe una página siguiente sin ejecutar COUNT
+    private Limit feedLimit(int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be greater than zero");
+        }
+        return Limit.of(Math.min(size, MAX_FEED_SIZE) + 1);
+    }
+
+    private CursorPage<PostSummary> toCursorPage(List<PostSummary> posts, int size) {
+        boolean hasNext = posts.size() > size;
+        List<PostSummary> content = hasNext ? posts.subList(0, size) : posts;
+
+        String nextCursor = null;
+        if (hasNext) {
+            nextCursor = FeedCursor.of(content.get(content.size() - 1)).encode();
+        }
+
+        return new CursorPage<>(content, nextCursor, hasNext);
     }
 
     /**
@@ -84,7 +275,10 @@ public class PostService {
         post.setUser(user);
         post.setStream(stream);
 
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(PostEvent.created(PostSummary.of(savedPost)));
+
+        return savedPost;
     }
 
     /**
@@ -105,7 +299,10 @@ public class PostService {
 
         post.setContent(postDetails.getContent());
 
-        return postRepository.save(post);
+        Post savedPost = postRepository.save(post);
+        eventPublisher.publishEvent(PostEvent.updated(summaryOf(savedPost)));
+
+        return savedPost;
     }
 
     /**
@@ -115,5 +312,12 @@ public class PostService {
     public void deletePost(Long id) {
         Post post = getPostById(id);
         postRepository.delete(post);
+        eventPublisher.publishEvent(PostEvent.deleted(summaryOf(post)));
+    }
+
+    // Resumen sin nombres de usuario ni de stream: leer solo los ids no inicializa los proxies perezosos
+    private static PostSummary summaryOf(Post post) {
+        return new PostSummary(post.getId(), post.getContent(), post.getCreatedAt(),
+                post.getUser().getId(), null, post.getStream().getId(), null);
     }
 }
\ No newline at end of file
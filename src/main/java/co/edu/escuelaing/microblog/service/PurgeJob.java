@@ -0,0 +1,254 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.dto.PurgeProgress;
+import co.edu.escuelaing.microblog.dto.PurgeProgress.Target;
+import co.edu.escuelaing.microblog.event.StreamDeletedEvent;
+import co.edu.escuelaing.microblog.event.UserDeletedEvent;
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import co.edu.escuelaing.microblog.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Borra en segundo plano los posts de los streams y usuarios eliminados, y después su fila.
+ *
+ * deleteStream y deleteUser solo marcan la fila con deleted_at, lo que la oculta al instante
+ * en todas las consultas de la entidad. Tras el commit se encola aquí la purga, que borra los
+ * posts por bloques de chunk-size IDs: cada bloque es una transacción propia con un SELECT
+ * sobre el índice y un DELETE ... WHERE id IN, de modo que ni la sesión ni la transacción
+ * crecen con el número de posts. Una purga interrumpida (reinicio, error) deja la fila
+ * marcada y se retoma al arrancar.
+ */
+@Service
+public class PurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurgeJob.class);
+    private static final int FINAL_ATTEMPTS = 3;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.purge.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${app.purge.history-size:100}")
+    private int historySize = 100;
+
+    private final Map<String, PurgeProgress> purges = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong purgedPosts = new AtomicLong();
+
+    private ExecutorService executor;
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Transacciones propias también cuando se encola desde un listener posterior al commit
+        transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    public void stop() {
+        // El bloque en curso termina o se deshace entero; el resto se retoma al arrancar
+        executor.shutdownNow();
+    }
+
+    /**
+     * Retoma las purgas que quedaron a medias en la ejecución anterior
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        List<Long> streams = streamRepository.findDeletedIds();
+        List<Long> users = userRepository.findDeletedIds();
+        if (!streams.isEmpty() || !users.isEmpty()) {
+            logger.info("Resuming purge of {} streams and {} users", streams.size(), users.size());
+        }
+        streams.forEach(id -> schedule(Target.STREAM, id));
+        users.forEach(id -> schedule(Target.USER, id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStreamDeleted(StreamDeletedEvent event) {
+        schedule(Target.STREAM, event.getStreamId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        schedule(Target.USER, event.getUserId());
+    }
+
+    /**
+     * Encola la purga si no hay ya una pendiente o en curso para el mismo stream o usuario
+     */
+    public PurgeProgress schedule(Target target, Long id) {
+        PurgeProgress progress = new PurgeProgress(target, id);
+        PurgeProgress current = purges.merge(key(target, id), progress,
+                (existing, added) -> existing.isFinished() ? added : existing);
+        if (current == progress) {
+            pending.incrementAndGet();
+            executor.execute(() -> purge(progress));
+            trimHistory();
+        }
+        return current;
+    }
+
+    /**
+     * Avance de la purga de un stream o usuario, o null si no se ha purgado desde el arranque
+     */
+    public PurgeProgress getProgress(Target target, Long id) {
+        return purges.get(key(target, id));
+    }
+
+    /**
+     * Purgas en curso y las últimas terminadas, de la más reciente a la más antigua
+     */
+    public List<PurgeProgress> getPurges() {
+        return purges.values().stream()
+                .sorted(Comparator.comparing(PurgeProgress::getRequestedAt).reversed())
+                .toList();
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getPurgedPostCount() {
+        return purgedPosts.get();
+    }
+
+    void purge(PurgeProgress progress) {
+        Target target = progress.getTarget();
+        Long id = progress.getId();
+        long start = System.nanoTime();
+        try {
+            progress.started(target == Target.STREAM
+                    ? postRepository.countByStreamId(id)
+                    : postRepository.countByUserId(id));
+
+            // Un bloque por transacción mientras salgan completos; lo que quede se borra junto con la fila
+            int deleted;
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    logger.info("Purge of {} {} interrupted after {} posts", target, id, progress.getPostsDeleted());
+                    return;
+                }
+                deleted = transaction.execute(status -> deleteChunk(target, id));
+                chunkDeleted(progress, deleted);
+            } while (deleted == chunkSize);
+
+            deleteRemaining(target, id).forEach(chunk -> chunkDeleted(progress, chunk));
+            progress.finished();
+            logger.info("Purged {} {}: {} posts in {} chunks, {} ms", target, id, progress.getPostsDeleted(),
+                    progress.getChunks(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            progress.failed(e.getMessage());
+            logger.error("Purge of {} {} failed after {} posts; it resumes on the next start", target, id,
+                    progress.getPostsDeleted(), e);
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Borra los posts que queden y la fila marcada en una sola transacción, de modo que un post
+     * insertado tras el último bloque se borra con ella en vez de romper la clave foránea. Si
+     * aun así se cuela uno entre el último SELECT y el DELETE de la fila, se reintenta.
+     */
+    private List<Integer> deleteRemaining(Target target, Long id) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> {
+                    List<Integer> chunks = new ArrayList<>();
+                    int deleted;
+                    while ((deleted = deleteChunk(target, id)) > 0) {
+                        chunks.add(deleted);
+                    }
+                    if (target == Target.STREAM) {
+                        streamRepository.deleteMarked(id);
+                    } else {
+                        userRepository.deleteMarked(id);
+                    }
+                    return chunks;
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == FINAL_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Purge of {} {}: a post was added while deleting the row, retrying", target, id);
+            }
+        }
+    }
+
+    private int deleteChunk(Target target, Long id) {
+        List<Long> ids = target == Target.STREAM
+                ? postRepository.findIdsByStreamId(id, Limit.of(chunkSize))
+                : postRepository.findIdsByUserId(id, Limit.of(chunkSize));
+        return ids.isEmpty() ? 0 : postRepository.deleteByIdIn(ids);
+    }
+
+    // Se cuenta tras el commit del bloque, para que el avance no incluya bloques deshechos
+    private void chunkDeleted(PurgeProgress progress, int deleted) {
+        if (deleted > 0) {
+            progress.chunkDeleted(deleted);
+            purgedPosts.addAndGet(deleted);
+            logger.debug("Purge of {} {}: {}/{} posts", progress.getTarget(), progress.getId(),
+                    progress.getPostsDeleted(), progress.getPostsTotal());
+        }
+    }
+
+    // Se olvidan las purgas terminadas más antiguas; las pendientes y en curso se conservan siempre
+    private void trimHistory() {
+        int excess = purges.size() - historySize;
+        if (excess <= 0) {
+            return;
+        }
+        purges.values().stream()
+                .filter(PurgeProgress::isFinished)
+                .sorted(Comparator.comparing(PurgeProgress::getFinishedAt))
+                .limit(excess)
+                .forEach(progress -> purges.remove(key(progress.getTarget(), progress.getId()), progress));
+    }
+
+    private static String key(Target target, Long id) {
+        return target + ":" + id;
+    }
+}
@@ -0,0 +1,504 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.dto.FeedCursor;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.event.PostEvent;
+import co.edu.escuelaing.microblog.event.StreamDeletedEvent;
+import co.edu.escuelaing.microblog.event.UserDeletedEvent;
+import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria con los posts más recientes de cada stream.
+ *
+ * Cada stream mantiene un buffer circular acotado ordenado del más nuevo al más
+ * antiguo, con los ids y las marcas de tiempo en arreglos long[] para comparar y
+ * buscar sin boxing. El índice se precarga al arrancar, se carga perezosamente
+ * ante un fallo y se mantiene con los eventos que PostService publica después de
+ * cada commit. Cuando una lectura no cabe en la ventana retenida se devuelve null
+ * y el llamador consulta la base de datos.
+ *
+ * Junto a los long[] cada hueco guarda el PostSummary, para responder sin ir a la base
+ * de datos. La memoria retenida es como mucho max-streams × capacity posts, a unos
+ * BYTES_PER_POST bytes cada uno; sin max-streams se calcula para no pasar de
+ * app.timeline.heap-fraction del heap máximo (10 % por defecto: con 200 posts por stream
+ * y 512 MB de heap, unos 500 streams). Lleno el índice, cargar un stream nuevo expulsa
+ * el de último acceso más antiguo.
+ */
+@Component
+public class RecentTimelineIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecentTimelineIndex.class);
+
+    // Estimación por post retenido: PostSummary con 140 caracteres de contenido, nombres,
+    // fecha y Long, más los dos long del anillo
+    static final int BYTES_PER_POST = 512;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    @Value("${app.timeline.capacity:200}")
+    private int capacity = 200;
+
+    // 0 para calcularlo a partir de heap-fraction
+    @Value("${app.timeline.max-streams:0}")
+    private int maxStreams = 0;
+
+    @Value("${app.timeline.heap-fraction:0.1}")
+    private double heapFraction = 0.1;
+
+    @Value("${app.timeline.warm-streams:100}")
+    private int warmStreams = 100;
+
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+    // Lecturas servidas desde memoria y lecturas que tuvieron que ir a la base de datos
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        if (maxStreams <= 0) {
+            long budget = (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+            maxStreams = (int) Math.max(1, Math.min(Integer.MAX_VALUE, budget / ((long) capacity * BYTES_PER_POST)));
+        }
+        logger.info("Recent timeline index holds up to {} streams of {} posts (about {} MB)", maxStreams, capacity,
+                (long) maxStreams * capacity * BYTES_PER_POST / (1024 * 1024));
+    }
+
+    /**
+     * Precarga los streams más recientes al arrancar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmStreams <= 0) {
+            return;
+        }
+
+        PageRequest newest = PageRequest.of(0, Math.min(warmStreams, maxStreams), Sort.by(Sort.Direction.DESC, "id"));
+        for (Stream stream : streamRepository.findAll(newest)) {
+            load(stream.getId());
+        }
+        logger.info("Recent timeline index warmed with {} streams", timelines.size());
+    }
+
+    /**
+     * Lee hasta limit posts más antiguos que el cursor (o los más nuevos si es null),
+     * saltando offset elementos. Devuelve null si la ventana en memoria no alcanza.
+     */
+    public List<PostSummary> readNewest(long streamId, FeedCursor after, int offset, int limit) {
+        Timeline timeline = loaded(streamId);
+        return counted(timeline == null ? null : timeline.read(after, offset, limit));
+    }
+
+    /**
+     * Lee, del más antiguo al más reciente, hasta limit posts posteriores al cursor.
+     * Devuelve null si el cursor es anterior a la ventana retenida.
+     */
+    public List<PostSummary> readNewer(long streamId, FeedCursor since, int limit) {
+        Timeline timeline = loaded(streamId);
+        return counted(timeline == null ? null : timeline.readNewer(since, limit));
+    }
+
+    /**
+     * Cursor del post más reciente del stream (FeedCursor.ORIGIN si no tiene posts),
+     * o null si el stream no está en memoria
+     */
+    public FeedCursor highWaterMark(long streamId) {
+        Timeline timeline = loaded(streamId);
+        return timeline == null ? null : timeline.highWaterMark();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int getStreamCount() {
+        return timelines.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostEvent(PostEvent event) {
+        PostSummary post = event.getPost();
+        Timeline timeline = timelines.get(post.getStreamId());
+        if (timeline == null) {
+            return;
+        }
+
+        switch (event.getType()) {
+            case CREATED -> timeline.insert(post);
+            case UPDATED -> timeline.update(post.getId(), post.getContent());
+            case DELETED -> timeline.remove(post.getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStreamDeleted(StreamDeletedEvent event) {
+        Timeline timeline = timelines.remove(event.getStreamId());
+        if (timeline != null) {
+            timeline.invalidate();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        long userId = event.getUserId();
+        for (Timeline timeline : timelines.values()) {
+            if (timeline.containsUser(userId)) {
+                timeline.invalidate();
+            }
+        }
+    }
+
+    private List<PostSummary> counted(List<PostSummary> posts) {
+        (posts == null ? misses : hits).increment();
+        return posts;
+    }
+
+    private Timeline loaded(long streamId) {
+        Timeline timeline = timelines.get(streamId);
+        if (timeline != null && timeline.loaded) {
+            timeline.lastAccessNanos = System.nanoTime();
+            return timeline;
+        }
+        return load(streamId);
+    }
+
+    // Carga la ventana desde la base de datos; se descarta si llegó un evento mientras se consultaba
+    private Timeline load(long streamId) {
+        Timeline timeline = timelines.get(streamId);
+        if (timeline == null) {
+            if (!streamRepository.existsById(streamId)) {
+                return null;
+            }
+            if (timelines.size() >= maxStreams) {
+                evictLeastRecentlyUsed();
+            }
+            timeline = timelines.computeIfAbsent(streamId, id -> new Timeline(capacity));
+        }
+        timeline.lastAccessNanos = System.nanoTime();
+
+        long version = timeline.version();
+        List<PostSummary> rows = postRepository.findFeedByStream(streamId, Limit.of(capacity));
+        return timeline.install(rows, version) ? timeline : null;
+    }
+
+    // Recorre el índice solo al cargar un stream nuevo con el índice lleno, nunca en una lectura en memoria
+    private void evictLeastRecentlyUsed() {
+        Map.Entry<Long, Timeline> oldest = null;
+        for (Map.Entry<Long, Timeline> entry : timelines.entrySet()) {
+            if (oldest == null || entry.getValue().lastAccessNanos - oldest.getValue().lastAccessNanos < 0) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null && timelines.remove(oldest.getKey(), oldest.getValue())) {
+            oldest.getValue().invalidate();
+        }
+    }
+
+    static long epochNanos(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    /**
+     * Ventana de un stream. El índice lógico 0 es el post más reciente.
+     */
+    static final class Timeline {
+        private final long[] ids;
+        private final long[] times;
+        private final PostSummary[] posts;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private int start;
+        private int count;
+        // true si la ventana contiene todos los posts del stream
+        private boolean complete;
+        private volatile boolean loaded;
+        private long version;
+        // Último acceso, para expulsar el stream menos usado cuando el índice está lleno
+        private volatile long lastAccessNanos;
+
+        Timeline(int capacity) {
+            this.ids = new long[capacity];
+            this.times = new long[capacity];
+            this.posts = new PostSummary[capacity];
+        }
+
+        long version() {
+            lock.readLock().lock();
+            try {
+                return version;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean install(List<PostSummary> newestFirst, long expectedVersion) {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    return true;
+                }
+                if (version != expectedVersion) {
+                    return false;
+                }
+                start = 0;
+                count = Math.min(newestFirst.size(), ids.length);
+                for (int i = 0; i < count; i++) {
+                    PostSummary post = newestFirst.get(i);
+                    ids[i] = post.getId();
+                    times[i] = epochNanos(post.getCreatedAt());
+                    posts[i] = post;
+                }
+                complete = newestFirst.size() < ids.length;
+                loaded = true;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void invalidate() {
+            lock.writeLock().lock();
+            try {
+                loaded = false;
+                version++;
+                count = 0;
+                Arrays.fill(posts, null);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<PostSummary> read(FeedCursor after, int offset, int limit) {
+            lock.readLock().lock();
+            try {
+                if (!loaded) {
+                    return null;
+                }
+                int begin = after == null ? 0 : firstOlderThan(epochNanos(after.getCreatedAt()), after.getId());
+                begin += offset;
+                int available = Math.max(0, count - begin);
+                if (available < limit && !complete) {
+                    return null;
+                }
+
+                int n = Math.min(limit, available);
+                if (n == 0) {
+                    return Collections.emptyList();
+                }
+                List<PostSummary> result = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    result.add(posts[slot(begin + i)]);
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<PostSummary> readNewer(FeedCursor since, int limit) {
+            lock.readLock().lock();
+            try {
+                if (!loaded) {
+                    return null;
+                }
+                int newer = countNewerThan(epochNanos(since.getCreatedAt()), since.getId());
+                // Todo lo retenido es posterior al cursor: puede haber un hueco fuera de la ventana
+                if (newer == count && newer > 0 && !complete) {
+                    return null;
+                }
+
+                int n = Math.min(limit, newer);
+                List<PostSummary> result = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    result.add(posts[slot(newer - 1 - i)]);
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        FeedCursor highWaterMark() {
+            lock.readLock().lock();
+            try {
+                if (!loaded) {
+                    return null;
+                }
+                return count == 0 ? FeedCursor.ORIGIN : FeedCursor.of(posts[slot(0)]);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean containsUser(long userId) {
+            lock.readLock().lock();
+            try {
+                for (int i = 0; i < count; i++) {
+                    Long owner = posts[slot(i)].getUserId();
+                    if (owner != null && owner == userId) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void insert(PostSummary post) {
+            long id = post.getId();
+            long time = epochNanos(post.getCreatedAt());
+
+            lock.writeLock().lock();
+            try {
+                version++;
+                if (!loaded || indexOf(id) >= 0) {
+                    return;
+                }
+                int position = firstOlderThan(time, id);
+                int capacity = ids.length;
+
+                // Más antiguo que todo lo retenido: solo cabe si la ventana tiene el stream completo
+                if (position == count && (!complete || count == capacity)) {
+                    complete = false;
+                    return;
+                }
+
+                if (count == capacity) {
+                    // Se reutiliza el hueco del más antiguo
+                    complete = false;
+                } else {
+                    count++;
+                }
+                start = (start - 1 + capacity) % capacity;
+                for (int i = 0; i < position; i++) {
+                    int to = slot(i);
+                    int from = slot(i + 1);
+                    ids[to] = ids[from];
+                    times[to] = times[from];
+                    posts[to] = posts[from];
+                }
+                int target = slot(position);
+                ids[target] = id;
+                times[target] = time;
+                posts[target] = post;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void update(long id, String content) {
+            lock.writeLock().lock();
+            try {
+                version++;
+                int index = indexOf(id);
+                if (index >= 0) {
+                    int target = slot(index);
+                    posts[target] = posts[target].withContent(content);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                version++;
+                int index = indexOf(id);
+                if (index < 0) {
+                    return;
+                }
+                for (int i = index; i < count - 1; i++) {
+                    int to = slot(i);
+                    int from = slot(i + 1);
+                    ids[to] = ids[from];
+                    times[to] = times[from];
+                    posts[to] = posts[from];
+                }
+                posts[slot(count - 1)] = null;
+                count--;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Búsqueda binaria del primer índice lógico estrictamente más antiguo que (time, id)
+        private int firstOlderThan(long time, long id) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int s = slot(mid);
+                boolean newerOrEqual = times[s] > time || (times[s] == time && ids[s] >= id);
+                if (newerOrEqual) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Cantidad de posts estrictamente posteriores a (time, id)
+        private int countNewerThan(long time, long id) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int s = slot(mid);
+                boolean newer = times[s] > time || (times[s] == time && ids[s] > id);
+                if (newer) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int indexOf(long id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[slot(i)] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int slot(int logical) {
+            return (start + logical) % ids.length;
+        }
+    }
+}
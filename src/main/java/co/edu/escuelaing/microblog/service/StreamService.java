@@ -5,9 +5,12 @@ import co.edu.escuelaing.microblog.repository.StreamRepository;
 import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
 import co.edu.escuelaing.microblog.exception.ResourceAlreadyExistsException;
 import co.edu.escuelaing.microblog.exception.BadRequestException;
+import co.edu.escuelaing.microblog.event.StreamDeletedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -16,6 +19,9 @@ public class StreamService {
     @Autowired
     private StreamRepository streamRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Obtiene todos los streams
      */
@@ -97,12 +103,14 @@ public class StreamService {
     }
 
     /**
-     * Elimina un stream
+     * Elimina un stream: deja de verse al confirmar y PurgeJob borra después sus posts y la fila
      */
     @Transactional
     public void deleteStream(Long id) {
         Stream stream = getStreamById(id);
-        streamRepository.delete(stream);
+        stream.setDeletedAt(LocalDateTime.now());
+        streamRepository.save(stream);
+        eventPublisher.publishEvent(new StreamDeletedEvent(id));
     }
 
     /**
@@ -5,10 +5,14 @@ import co.edu.escuelaing.microblog.repository.UserRepository;
 import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
 import co.edu.escuelaing.microblog.exception.ResourceAlreadyExistsException;
 import co.edu.escuelaing.microblog.exception.BadRequestException;
+import co.edu.escuelaing.microblog.event.UserDeletedEvent;
+import co.edu.escuelaing.microblog.security.TokenVersionRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -20,6 +24,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
     /**
      * Obtiene todos los usuarios
      */
@@ -112,6 +122,9 @@ public class UserService {
             throw new ResourceAlreadyExistsException("User", "email", userDetails.getEmail());
         }
 
+        // Los tokens emitidos llevan el nombre de usuario: si cambia, o cambia la contraseña, se revocan
+        boolean revokeTokens = !user.getUsername().equals(userDetails.getUsername());
+
         // Actualizar campos
         user.setUsername(userDetails.getUsername());
         user.setEmail(userDetails.getEmail());
@@ -119,18 +132,27 @@ public class UserService {
         // Solo actualizar la contraseña si se proporciona una nueva
         if (userDetails.getPassword() != null && !userDetails.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
+            revokeTokens = true;
+        }
+
+        if (revokeTokens) {
+            tokenVersionRegistry.revoke(user.getId());
         }
 
         return userRepository.save(user);
     }
 
     /**
-     * Elimina un usuario
+     * Elimina un usuario: deja de verse y de poder iniciar sesión al confirmar, sus tokens
+     * quedan revocados y PurgeJob borra después sus posts y la fila
      */
     @Transactional
     public void deleteUser(Long id) {
         User user = getUserById(id);
-        userRepository.delete(user);
+        user.setDeletedAt(LocalDateTime.now());
+        userRepository.save(user);
+        tokenVersionRegistry.revoke(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 
     public boolean existsByUsername(String username) {
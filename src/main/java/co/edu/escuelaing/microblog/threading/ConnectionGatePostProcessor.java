@@ -0,0 +1,52 @@
+package co.edu.escuelaing.microblog.threading;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve el DataSource de la aplicación en un ConnectionGate cuando
+ * app.datasource.gate.enabled está activo (por defecto, en el modo de hilos virtuales).
+ *
+ * Va antes que QueryStatsPostProcessor para envolver directamente el pool de Hikari.
+ */
+@Component
+public class ConnectionGatePostProcessor implements BeanPostProcessor, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionGatePostProcessor.class);
+
+    @Value("${app.datasource.gate.enabled:false}")
+    private boolean enabled = false;
+
+    // 0 = tantos permisos como conexiones tiene el pool de Hikari
+    @Value("${app.datasource.gate.permits:0}")
+    private int permits = 0;
+
+    @Value("${app.datasource.gate.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMillis = 5000;
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ConnectionGate) {
+            return bean;
+        }
+
+        int size = permits;
+        if (size <= 0) {
+            size = bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+        }
+        logger.info("Connection gate on '{}': {} permits, {}ms acquire timeout", beanName, size, acquireTimeoutMillis);
+        return new ConnectionGate(dataSource, size, acquireTimeoutMillis);
+    }
+}
@@ -0,0 +1,41 @@
+package co.edu.escuelaing.microblog.threading;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Informa al arrancar con qué hilos se atienden las peticiones.
+ *
+ * spring.threads.virtual.enabled solo tiene efecto con Java 21 o superior; en versiones
+ * anteriores Spring Boot sigue usando el pool de hilos de plataforma de Tomcat sin avisar.
+ */
+@Component
+public class ThreadingModeReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingModeReporter.class);
+
+    static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled = false;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int tomcatMaxThreads = 200;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        int javaVersion = Runtime.version().feature();
+        if (!virtualThreadsEnabled) {
+            logger.info("Requests run on up to {} platform threads", tomcatMaxThreads);
+        } else if (javaVersion < VIRTUAL_THREADS_JAVA_VERSION) {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "requests run on up to {} platform threads", javaVersion, tomcatMaxThreads);
+        } else {
+            logger.info("Requests and async tasks run on virtual threads");
+        }
+    }
+}
@@ -5,7 +5,7 @@ const api = {
     posts: {
         getAll: async (page = 0, size = 10) => {
             try {
-                const response = await authFetch(`${API_BASE_URL}/posts?page=${page}&size=${size}`);
+                const response = await authFetch(`${API_BASE_URL}/posts/slice?page=${page}&size=${size}`);
                 if (!response.ok) throw new Error('Failed to fetch posts');
                 return await response.json();
             } catch (error) {
@@ -16,7 +16,7 @@ const api = {
 
         getByStream: async (streamId, page = 0, size = 10) => {
             try {
-                const response = await authFetch(`${API_BASE_URL}/posts/stream/${streamId}?page=${page}&size=${size}`);
+                const response = await authFetch(`${API_BASE_URL}/posts/stream/${streamId}/slice?page=${page}&size=${size}&sort=createdAt,desc`);
                 if (!response.ok) throw new Error('Failed to fetch posts for stream');
                 return await response.json();
             } catch (error) {
@@ -70,6 +70,13 @@ const api = {
             }
         },
 
+        subscribe: (streamId, onPost) => {
+            // Server-Sent Events: el servidor empuja los posts nuevos en lugar de volver a consultar
+            const source = new EventSource(`${API_BASE_URL}/streams/${streamId}/live`);
+            source.addEventListener('post', event => onPost(JSON.parse(event.data)));
+            return source;
+        },
+
         getById: async (id) => {
             try {
                 const response = await authFetch(`${API_BASE_URL}/streams/${id}`);
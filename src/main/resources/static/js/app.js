@@ -39,6 +39,15 @@ document.addEventListener('DOMContentLoaded', () => {
     setupEventListeners();
 });
 
+let liveFeed = null;
+
+function stopLiveFeed() {
+    if (liveFeed) {
+        liveFeed.close();
+        liveFeed = null;
+    }
+}
+
 function setupEventListeners() {
     homeLink.addEventListener('click', navigateToHome);
     streamsLink.addEventListener('click', navigateToStreams);
@@ -172,6 +181,8 @@ async function loadPosts() {
 
     if (!postsContainer) return;
 
+    stopLiveFeed();
+
     try {
         postsContainer.innerHTML = '';
         if (postsLoading) {
@@ -382,6 +393,13 @@ async function loadPostsByStream(streamId) {
 
         document.getElementById('back-to-all').addEventListener('click', loadPosts);
 
+        stopLiveFeed();
+        liveFeed = api.streams.subscribe(streamId, post => {
+            const emptyAlert = postsContainer.querySelector('.alert-info');
+            if (emptyAlert) emptyAlert.remove();
+            postsContainer.firstElementChild.after(createPostElement(post));
+        });
+
         if (!posts || posts.length === 0) {
             postsContainer.innerHTML += '<div class="alert alert-info">No posts in this stream yet.</div>';
             return;
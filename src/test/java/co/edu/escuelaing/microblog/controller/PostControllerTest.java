@@ -1,5 +1,9 @@
 package co.edu.escuelaing.microblog.controller;
 
+import co.edu.escuelaing.microblog.dto.CursorPage;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.dto.SliceResponse;
+import co.edu.escuelaing.microblog.ingest.PostWriteBehind;
 import co.edu.escuelaing.microblog.model.Post;
 import co.edu.escuelaing.microblog.model.Stream;
 import co.edu.escuelaing.microblog.model.User;
@@ -12,8 +16,12 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -21,6 +29,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -30,13 +39,17 @@ public class PostControllerTest {
     @Mock
     private PostService postService;
 
+    @Mock
+    private PostWriteBehind postWriteBehind;
+
     @InjectMocks
     private PostController postController;
 
     private Post testPost;
     private User testUser;
     private Stream testStream;
-    private Page<Post> postPage;
+    private PostSummary testSummary;
+    private Page<PostSummary> postPage;
 
     @BeforeEach
     void setUp() {
@@ -57,8 +70,11 @@ public class PostControllerTest {
         testPost.setUser(testUser);
         testPost.setStream(testStream);
 
-        List<Post> posts = new ArrayList<>();
-        posts.add(testPost);
+        testSummary = new PostSummary(1L, "Test post content", testPost.getCreatedAt(),
+                1L, "testuser", 1L, "teststream");
+
+        List<PostSummary> posts = new ArrayList<>();
+        posts.add(testSummary);
         postPage = new PageImpl<>(posts);
     }
 
@@ -68,7 +84,7 @@ public class PostControllerTest {
         when(postService.getAllPosts(any(Pageable.class))).thenReturn(postPage);
 
         // Act
-        Page<Post> result = postController.getAllPosts(Pageable.unpaged());
+        Page<PostSummary> result = postController.getAllPosts(Pageable.unpaged());
 
         // Assert
         assertNotNull(result);
@@ -96,11 +112,12 @@ public class PostControllerTest {
         when(postService.getPostsByStream(eq(1L), any(Pageable.class))).thenReturn(postPage);
 
         // Act
-        Page<Post> result = postController.getPostsByStream(1L, Pageable.unpaged());
+        Page<PostSummary> result = postController.getPostsByStream(1L, Pageable.unpaged());
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
+        assertEquals("testuser", result.getContent().get(0).getUsername());
         verify(postService, times(1)).getPostsByStream(eq(1L), any(Pageable.class));
     }
 
@@ -110,7 +127,7 @@ public class PostControllerTest {
         when(postService.getPostsByUser(eq(1L), any(Pageable.class))).thenReturn(postPage);
 
         // Act
-        Page<Post> result = postController.getPostsByUser(1L, Pageable.unpaged());
+        Page<PostSummary> result = postController.getPostsByUser(1L, Pageable.unpaged());
 
         // Assert
         assertNotNull(result);
@@ -118,20 +135,150 @@ public class PostControllerTest {
         verify(postService, times(1)).getPostsByUser(eq(1L), any(Pageable.class));
     }
 
+    @Test
+    void getPostsByStreamSlice_ShouldReturnSliceWithoutTotal() {
+        // Arrange
+        SliceResponse<PostSummary> slice = new SliceResponse<>(List.of(testSummary), 0, 10, false, null);
+        when(postService.getPostsByStreamSlice(eq(1L), any(Pageable.class), eq(false))).thenReturn(slice);
+
+        // Act
+        SliceResponse<PostSummary> result = postController.getPostsByStreamSlice(1L, Pageable.unpaged(), false);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getApproximateTotal());
+        verify(postService, times(1)).getPostsByStreamSlice(eq(1L), any(Pageable.class), eq(false));
+    }
+
+    @Test
+    void getFeedByStream_ShouldReturnCursorPage() {
+        // Arrange
+        CursorPage<PostSummary> feed = new CursorPage<>(List.of(testSummary), "next", true);
+        when(postService.getFeedByStream(1L, null, 10)).thenReturn(feed);
+
+        // Act
+        CursorPage<PostSummary> result = postController.getFeedByStream(1L, null, 10);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(1, result.getSize());
+        assertEquals("next", result.getNextCursor());
+        verify(postService, times(1)).getFeedByStream(1L, null, 10);
+    }
+
+    @Test
+    void getPostsSince_WithNewPosts_ShouldReturnDeltaAndETag() {
+        // Arrange
+        CursorPage<PostSummary> delta = new CursorPage<>(List.of(testSummary), "next", false);
+        when(postService.getStreamETag(1L)).thenReturn("\"1-new\"");
+        when(postService.getPostsSince(1L, "since", 10)).thenReturn(delta);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act
+        ResponseEntity<CursorPage<PostSummary>> response =
+                postController.getPostsSince(1L, "since", 10, conditionalGet("\"1-old\"", servletResponse));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"1-new\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertEquals(1, response.getBody().getSize());
+    }
+
+    @Test
+    void getPostsSince_WithMatchingETag_ShouldReturnNotModified() {
+        // Arrange
+        when(postService.getStreamETag(1L)).thenReturn("\"1-same\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act: lista de validadores con la versión débil del actual
+        ResponseEntity<CursorPage<PostSummary>> response =
+                postController.getPostsSince(1L, "since", 10, conditionalGet("\"1-old\", W/\"1-same\"", servletResponse));
+
+        // Assert
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals("\"1-same\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(postService, never()).getPostsSince(anyLong(), anyString(), anyInt());
+    }
+
+    @Test
+    void getPostsSince_WithWildcard_ShouldReturnNotModified() {
+        // Arrange
+        when(postService.getStreamETag(1L)).thenReturn("\"1-any\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act
+        ResponseEntity<CursorPage<PostSummary>> response =
+                postController.getPostsSince(1L, "since", 10, conditionalGet("*", servletResponse));
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"1-any\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(postService, never()).getPostsSince(anyLong(), anyString(), anyInt());
+    }
+
     @Test
     void createPost_ShouldReturnCreatedPost() {
         // Arrange
         when(postService.createPost(any(Post.class), eq(1L), eq(1L))).thenReturn(testPost);
 
         // Act
-        Post result = postController.createPost(new Post(), 1L, 1L);
+        ResponseEntity<?> response = postController.createPost(new Post(), 1L, 1L, null);
 
         // Assert
-        assertNotNull(result);
-        assertEquals("Test post content", result.getContent());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(testPost, response.getBody());
         verify(postService, times(1)).createPost(any(Post.class), eq(1L), eq(1L));
     }
 
+    @Test
+    void createPost_WithRespondAsyncAndWriteBehindEnabled_ShouldReturnAccepted() {
+        // Arrange
+        Post post = new Post();
+        post.setContent("Test post content");
+        when(postWriteBehind.isEnabled()).thenReturn(true);
+        when(postWriteBehind.submit("Test post content", 1L, 1L)).thenReturn(testSummary);
+
+        // Act: preferencia en minúsculas junto a otras, como permite RFC 7240
+        ResponseEntity<?> response = postController.createPost(post, 1L, 1L, "return=minimal, Respond-Async; x=1, wait=5");
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(testSummary, response.getBody());
+        assertEquals("/api/posts/1", response.getHeaders().getLocation().toString());
+        verify(postService, never()).createPost(any(Post.class), anyLong(), anyLong());
+    }
+
+    @Test
+    void createPost_WithOtherPreferences_ShouldCreatePost() {
+        // Arrange
+        when(postWriteBehind.isEnabled()).thenReturn(true);
+        when(postService.createPost(any(Post.class), eq(1L), eq(1L))).thenReturn(testPost);
+
+        // Act
+        ResponseEntity<?> response = postController.createPost(new Post(), 1L, 1L, "return=representation, wait=5");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(postWriteBehind, never()).submit(any(), any(), any());
+    }
+
+    @Test
+    void createPost_WithRespondAsyncAndWriteBehindDisabled_ShouldCreatePost() {
+        // Arrange
+        when(postWriteBehind.isEnabled()).thenReturn(false);
+        when(postService.createPost(any(Post.class), eq(1L), eq(1L))).thenReturn(testPost);
+
+        // Act
+        ResponseEntity<?> response = postController.createPost(new Post(), 1L, 1L, "respond-async");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(testPost, response.getBody());
+        verify(postWriteBehind, never()).submit(any(), any(), any());
+    }
+
     @Test
     void updatePost_ShouldReturnUpdatedPost() {
         // Arrange
@@ -158,4 +305,10 @@ public class PostControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(postService, times(1)).deletePost(1L);
     }
-}
\ No newline at end of file
+
+    private ServletWebRequest conditionalGet(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/stream/1/since/since");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -0,0 +1,102 @@
+package co.edu.escuelaing.microblog.handler;
+
+import co.edu.escuelaing.microblog.dto.ApiResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiGatewayCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ApiGatewayCodec codec = new ApiGatewayCodec(objectMapper);
+
+    @Test
+    void readEvent_ShouldExtractUsedFieldsAndSkipTheRest() throws Exception {
+        // Arrange
+        String json = "{\"resource\":\"/{proxy+}\",\"path\":\"/api/posts/5\",\"httpMethod\":\"GET\","
+                + "\"headers\":{\"Authorization\":\"Bearer abc\",\"X-Empty\":null},"
+                + "\"multiValueHeaders\":{\"Authorization\":[\"Bearer abc\"]},"
+                + "\"queryStringParameters\":{\"size\":\"10\"},"
+                + "\"requestContext\":{\"identity\":{\"sourceIp\":\"1.2.3.4\"},\"stage\":\"prod\"},"
+                + "\"body\":\"{\\\"content\\\":\\\"hola\\\"}\",\"isBase64Encoded\":false}";
+        ApiGatewayEvent event = new ApiGatewayEvent();
+
+        // Act
+        codec.readEvent(stream(json), event);
+
+        // Assert
+        assertEquals("GET", event.getHttpMethod());
+        assertEquals("/api/posts/5", event.getPath());
+        assertEquals("{\"content\":\"hola\"}", event.getBody());
+        assertEquals("Bearer abc", event.getHeaders().get("Authorization"));
+        assertTrue(event.getHeaders().containsKey("X-Empty"));
+        assertEquals("10", event.getQueryStringParameters().get("size"));
+    }
+
+    @Test
+    void readEvent_ShouldResetReusedEventAndDecodeBase64Body() throws Exception {
+        // Arrange
+        ApiGatewayEvent event = new ApiGatewayEvent();
+        codec.readEvent(stream("{\"httpMethod\":\"GET\",\"path\":\"/a\",\"headers\":{\"A\":\"1\"},"
+                + "\"queryStringParameters\":{\"q\":\"1\"}}"), event);
+        String json = "{\"httpMethod\":\"POST\",\"headers\":null,\"queryStringParameters\":null,"
+                + "\"body\":\"eyJhIjoxfQ==\",\"isBase64Encoded\":true}";
+
+        // Act
+        codec.readEvent(stream(json), event);
+
+        // Assert
+        assertEquals("POST", event.getHttpMethod());
+        assertEquals("", event.getPath());
+        assertEquals("{\"a\":1}", event.getBody());
+        assertTrue(event.getHeaders().isEmpty());
+        assertTrue(event.getQueryStringParameters().isEmpty());
+    }
+
+    @Test
+    void writeResponse_ShouldWriteEnvelopeWithBodyAsString() throws Exception {
+        // Arrange
+        ApiGatewayResponse response = ApiGatewayResponse.status(503, new ApiResponse(false, "busy \"now\""))
+                .header("Retry-After", "1")
+                .header("Content-Type", "application/x-ndjson");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        codec.writeResponse(out, response);
+
+        // Assert
+        JsonNode written = objectMapper.readTree(out.toByteArray());
+        assertEquals(503, written.get("statusCode").asInt());
+        assertEquals("1", written.get("headers").get("Retry-After").asText());
+        assertEquals("application/x-ndjson", written.get("headers").get("Content-Type").asText());
+        assertEquals("*", written.get("headers").get("Access-Control-Allow-Origin").asText());
+        assertTrue(written.get("headers").get("Access-Control-Allow-Headers").asText().contains("If-None-Match"));
+        assertTrue(written.get("headers").get("Access-Control-Expose-Headers").asText().contains("ETag"));
+        JsonNode body = objectMapper.readTree(written.get("body").asText());
+        assertEquals("busy \"now\"", body.get("message").asText());
+    }
+
+    @Test
+    void writeResponse_WithNullBody_ShouldWriteEmptyString() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        codec.writeResponse(out, ApiGatewayResponse.ok(null));
+
+        // Assert
+        JsonNode written = objectMapper.readTree(out.toByteArray());
+        assertEquals(200, written.get("statusCode").asInt());
+        assertEquals("", written.get("body").asText());
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,29 @@
+package co.edu.escuelaing.microblog.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApiGatewayRequestTest {
+
+    @Test
+    void matchesIfNoneMatch_ShouldAcceptListsWeakTagsAndWildcard() {
+        // Arrange
+        String etag = "\"7-abc\"";
+
+        // Act & Assert
+        assertTrue(request("\"7-abc\"").matchesIfNoneMatch(etag));
+        assertTrue(request("\"7-old\", W/\"7-abc\"").matchesIfNoneMatch(etag));
+        assertTrue(request("*").matchesIfNoneMatch(etag));
+        assertFalse(request("\"7-old\"").matchesIfNoneMatch(etag));
+        assertFalse(request(null).matchesIfNoneMatch(etag));
+    }
+
+    private ApiGatewayRequest request(String ifNoneMatch) {
+        ApiGatewayEvent event = new ApiGatewayEvent();
+        if (ifNoneMatch != null) {
+            event.getHeaders().put("if-none-match", ifNoneMatch);
+        }
+        return new ApiGatewayRequest(event, null);
+    }
+}
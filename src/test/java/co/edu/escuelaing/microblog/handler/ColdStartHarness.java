@@ -0,0 +1,118 @@
+package co.edu.escuelaing.microblog.handler;
+
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Mide localmente el arranque en frío de los handlers de Lambda.
+ *
+ * Cada medición lanza una JVM nueva que carga un handler (inicialización estática
+ * y contexto compartido) y atiende una petición, tal como ocurre en un entorno de
+ * ejecución recién creado. Se mide con y sin precalentamiento.
+ *
+ * Uso: mvn -P cold-start test-compile exec:exec [-Dcoldstart.runs=5]
+ */
+public class ColdStartHarness {
+
+    private static final String[][] SCENARIOS = {
+            {"StreamServiceHandler", "{\"path\":\"/api/streams\",\"httpMethod\":\"GET\",\"headers\":{}}"},
+            {"PostServiceHandler", "{\"path\":\"/api/posts/slice\",\"httpMethod\":\"GET\",\"headers\":{},\"queryStringParameters\":{}}"},
+            {"AuthServiceHandler", "{\"path\":\"/api/auth/signup\",\"httpMethod\":\"POST\",\"headers\":{},"
+                    + "\"body\":\"{\\\"username\\\":\\\"cold\\\",\\\"email\\\":\\\"cold@example.com\\\",\\\"password\\\":\\\"secret123\\\"}\"}"}
+    };
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("child")) {
+            runChild(args[1], args[2]);
+            return;
+        }
+
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        System.out.printf("%-22s %-8s %10s %10s %10s %10s%n", "handler", "primed", "jvm->init", "init", "first req", "total");
+        for (String[] scenario : SCENARIOS) {
+            for (boolean primed : new boolean[]{false, true}) {
+                List<long[]> samples = new ArrayList<>();
+                for (int i = 0; i < runs; i++) {
+                    samples.add(runInFreshJvm(scenario[0], scenario[1], primed));
+                }
+                System.out.printf("%-22s %-8s %10s %10s %10s %10s%n", scenario[0], primed,
+                        median(samples, 0), median(samples, 1), median(samples, 2), median(samples, 3));
+            }
+        }
+        System.out.println("(medianas en ms sobre " + runs + " JVMs por fila)");
+    }
+
+    // Ejecutado en la JVM hija: imprime "jvmHastaMain init primeraPeticion total" en ms
+    private static void runChild(String handlerName, String event) throws Exception {
+        long mainStart = System.nanoTime();
+        long jvmToMain = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        Class<?> type = Class.forName(ColdStartHarness.class.getPackageName() + "." + handlerName);
+        RequestStreamHandler handler = (RequestStreamHandler) type.getDeclaredConstructor().newInstance();
+        long initialized = System.nanoTime();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        handler.handleRequest(new ByteArrayInputStream(event.getBytes(StandardCharsets.UTF_8)), output, null);
+        long handled = System.nanoTime();
+
+        String response = output.toString(StandardCharsets.UTF_8);
+        if (!response.contains("\"statusCode\":20")) {
+            throw new IllegalStateException("Unexpected response: " + response);
+        }
+        System.out.println("RESULT " + jvmToMain + " " + (initialized - mainStart) / 1_000_000 + " "
+                + (handled - initialized) / 1_000_000 + " " + (jvmToMain + (handled - mainStart) / 1_000_000));
+    }
+
+    private static long[] runInFreshJvm(String handler, String event, boolean primed) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                "-Dapp.lambda.prime=" + primed,
+                "-Dlogging.level.root=WARN",
+                ColdStartHarness.class.getName(), "child", handler, event)
+                .redirectErrorStream(true)
+                .start();
+
+        String result = null;
+        StringBuilder log = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("RESULT ")) {
+                    result = line.substring("RESULT ".length());
+                } else {
+                    log.append(line).append(System.lineSeparator());
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException("Cold start run failed for " + handler + ":" + System.lineSeparator() + log);
+        }
+
+        String[] parts = result.split(" ");
+        long[] sample = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sample[i] = Long.parseLong(parts[i]);
+        }
+        return sample;
+    }
+
+    private static long median(List<long[]> samples, int column) {
+        List<Long> values = new ArrayList<>();
+        for (long[] sample : samples) {
+            values.add(sample[column]);
+        }
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+}
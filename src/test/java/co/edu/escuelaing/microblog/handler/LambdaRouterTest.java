@@ -0,0 +1,69 @@
+package co.edu.escuelaing.microblog.handler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LambdaRouterTest {
+
+    private LambdaRouter<String> router;
+
+    @BeforeEach
+    void setUp() {
+        router = new LambdaRouter<String>()
+                .add("GET", "/api/posts", "all")
+                .add("GET", "/api/posts/slice", "slice")
+                .add("GET", "/api/posts/{postId:long}", "byId")
+                .add("DELETE", "/api/posts/{postId:long}", "delete")
+                .add("GET", "/api/posts/stream/{streamId:long}/since/{cursor}", "since")
+                .add("POST", "/api/posts/user/{userId:long}/stream/{streamId:long}", "create")
+                .add("GET", "/api/streams/name/{name}", "byName");
+    }
+
+    @Test
+    void match_WithLiteralPath_ShouldPreferLiteralOverVariable() {
+        // Act & Assert
+        assertEquals("all", router.match("GET", "/api/posts").getHandler());
+        assertEquals("slice", router.match("GET", "/api/posts/slice").getHandler());
+        assertEquals("all", router.match("GET", "/api/posts/").getHandler());
+    }
+
+    @Test
+    void match_WithTypedVariables_ShouldExtractValues() {
+        // Act
+        LambdaRouter.Match<String> since = router.match("GET", "/api/posts/stream/7/since/AAAAB-c_");
+        LambdaRouter.Match<String> create = router.match("POST", "/api/posts/user/3/stream/9");
+
+        // Assert
+        assertEquals("since", since.getHandler());
+        assertEquals(7L, since.getLong("streamId"));
+        assertEquals("AAAAB-c_", since.getVariable("cursor"));
+        assertEquals(3L, create.getLong("userId"));
+        assertEquals(9L, create.getLong("streamId"));
+        assertEquals("/api/posts/stream/{streamId:long}/since/{cursor}", since.getTemplate());
+    }
+
+    @Test
+    void match_ShouldDistinguishMethods() {
+        // Act & Assert
+        assertEquals("byId", router.match("GET", "/api/posts/5").getHandler());
+        assertEquals("delete", router.match("DELETE", "/api/posts/5").getHandler());
+        assertNull(router.match("PUT", "/api/posts/5"));
+    }
+
+    @Test
+    void match_WithNonNumericId_ShouldNotMatchLongVariable() {
+        // Act & Assert
+        assertNull(router.match("GET", "/api/posts/abc"));
+        assertNull(router.match("GET", "/api/posts/stream/x/since/c"));
+        assertEquals("general", router.match("GET", "/api/streams/name/general").getVariable("name"));
+        assertNull(router.match("GET", "/api/unknown"));
+    }
+
+    @Test
+    void add_WithDuplicateRoute_ShouldFail() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> router.add("GET", "/api/posts/{id:long}", "other"));
+    }
+}
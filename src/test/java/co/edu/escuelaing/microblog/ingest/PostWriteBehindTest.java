@@ -0,0 +1,147 @@
+package co.edu.escuelaing.microblog.ingest;
+
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.exception.BadRequestException;
+import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
+import co.edu.escuelaing.microblog.exception.ServiceUnavailableException;
+import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.model.User;
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import co.edu.escuelaing.microblog.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doThrow;
+
+// Sin transacción de prueba: el hilo escritor solo ve los usuarios y streams ya confirmados
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(PostWriteBehind.class)
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@TestPropertySource(properties = {"app.posts.write-behind.enabled=true", "app.posts.write-behind.capacity=1024",
+        "app.posts.write-behind.max-batch=100"})
+public class PostWriteBehindTest {
+
+    @Autowired
+    private PostWriteBehind writeBehind;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    private Long userId;
+    private Long streamId;
+
+    @BeforeEach
+    void setUp() {
+        writeBehind.start();
+
+        User user = new User();
+        user.setUsername("writer" + System.nanoTime());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setPassword("secret123");
+        userId = userRepository.save(user).getId();
+
+        Stream stream = new Stream();
+        stream.setName("ingest" + System.nanoTime());
+        streamId = streamRepository.save(stream).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.stop();
+    }
+
+    @Test
+    void submit_ThenStop_ShouldWriteEveryAcceptedPost() {
+        // Arrange
+        long writtenBefore = writeBehind.getWrittenCount();
+        Set<Long> ids = new HashSet<>();
+
+        // Act
+        for (int i = 0; i < 500; i++) {
+            PostSummary accepted = writeBehind.submit("post " + i, userId, streamId);
+            ids.add(accepted.getId());
+        }
+        writeBehind.stop();
+
+        // Assert
+        assertEquals(500, ids.size());
+        assertEquals(500, writeBehind.getWrittenCount() - writtenBefore);
+        assertEquals(500, postRepository.countByStreamId(streamId));
+        assertEquals(0, writeBehind.getQueueDepth());
+        assertFalse(writeBehind.isRunning());
+        assertThrows(ServiceUnavailableException.class, () -> writeBehind.submit("late", userId, streamId));
+    }
+
+    @Test
+    void submit_ShouldReturnPostWithAssignedIdAndNames() {
+        // Act
+        PostSummary accepted = writeBehind.submit("hello", userId, streamId);
+        writeBehind.stop();
+
+        // Assert
+        assertNotNull(accepted.getId());
+        assertNotNull(accepted.getCreatedAt());
+        assertTrue(accepted.getUsername().startsWith("writer"));
+        assertTrue(accepted.getStreamName().startsWith("ingest"));
+        assertEquals("hello", postRepository.findById(accepted.getId()).orElseThrow().getContent());
+    }
+
+    @Test
+    void submit_WithInvalidPost_ShouldFailBeforeQueueing() {
+        // Arrange
+        long acceptedBefore = writeBehind.getAcceptedCount();
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> writeBehind.submit("orphan", 999_999L, streamId));
+        assertThrows(ResourceNotFoundException.class, () -> writeBehind.submit("nowhere", userId, 999_999L));
+        assertThrows(BadRequestException.class, () -> writeBehind.submit("", userId, streamId));
+        assertThrows(BadRequestException.class, () -> writeBehind.submit("x".repeat(141), userId, streamId));
+        assertEquals(acceptedBefore, writeBehind.getAcceptedCount());
+    }
+
+    @Test
+    void submit_WhenDatabaseFailsTransiently_ShouldRetryInsteadOfDropping() {
+        // Arrange: el primer lote falla como si se hubiera perdido la conexión
+        long failedBefore = writeBehind.getFailedCount();
+        doThrow(new TransientDataAccessResourceException("Connection is not available"))
+                .doCallRealMethod()
+                .when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        // Act
+        PostSummary accepted = writeBehind.submit("survives", userId, streamId);
+        writeBehind.stop();
+
+        // Assert
+        assertEquals(failedBefore, writeBehind.getFailedCount());
+        assertEquals("survives", postRepository.findById(accepted.getId()).orElseThrow().getContent());
+    }
+}
@@ -0,0 +1,67 @@
+package co.edu.escuelaing.microblog.integration;
+
+import co.edu.escuelaing.microblog.metrics.QueryStatsAssertions;
+import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.model.User;
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import co.edu.escuelaing.microblog.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fija el número de sentencias de los listados públicos a través de toda la pila HTTP,
+ * leyendo las cabeceras X-Query-* que QueryStatsFilter añade con header-enabled
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "app.jdbc.query-stats.header-enabled=true")
+public class QueryStatsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime() % 1_000_000_000L;
+        User user = userRepository.save(new User("stats" + suffix, "stats" + suffix + "@example.com", "secret123"));
+        Stream stream = streamRepository.save(new Stream("stats" + suffix, null));
+        for (int i = 0; i < 3; i++) {
+            postRepository.save(new Post("post " + i, user, stream));
+        }
+    }
+
+    @Test
+    void getStreams_ShouldRunOneStatement() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/streams"))
+                .andExpect(status().isOk())
+                .andExpect(QueryStatsAssertions.statements(1));
+    }
+
+    @Test
+    void getPosts_ShouldNotLoadUsersOrStreamsPerPost() throws Exception {
+        // Act & Assert: la página y su conteo
+        mockMvc.perform(get("/api/posts"))
+                .andExpect(status().isOk())
+                .andExpect(QueryStatsAssertions.maxStatements(2));
+    }
+}
@@ -0,0 +1,370 @@
+package co.edu.escuelaing.microblog.loadtest;
+
+import co.edu.escuelaing.microblog.seed.ZipfSampler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga contra una instancia en ejecución de la aplicación.
+ *
+ * Cada cliente concurrente inicia sesión con su propia cuenta y repite operaciones
+ * elegidas según la mezcla configurada: leer el feed de un stream, leer un stream,
+ * publicar un post o iniciar sesión. Los clientes corren en hilos virtuales cuando la
+ * JVM los soporta (Java 21+) y en hilos de plataforma si no. Las latencias se registran
+ * en histogramas HdrHistogram por cliente que se combinan al final.
+ *
+ * Con --rate=N la carga es de tasa fija: cada operación tiene una hora de inicio
+ * prevista y la latencia se mide desde ella, así que las esperas por saturación del
+ * servidor cuentan en los percentiles (sin omisión coordinada). Sin --rate cada cliente
+ * lanza la siguiente operación en cuanto termina la anterior.
+ *
+ * Uso: mvn -P load-test test-compile exec:exec -Dloadtest.args="--concurrency=200 --duration=60"
+ *
+ * Opciones (--nombre=valor):
+ *   base-url     URL de la aplicación (http://localhost:8080)
+ *   concurrency  clientes concurrentes (64)
+ *   duration     segundos de medición (30)
+ *   warmup       segundos de calentamiento no medidos (5)
+ *   rate         operaciones por segundo en total; 0 = bucle cerrado (0)
+ *   mix          pesos por operación (feed=70,stream=10,write=15,login=5)
+ *   users        usuarios sembrados con el perfil seed (user1..userN); 0 = registrar cuentas nuevas (0)
+ *   streams      streams sembrados (1..N, elegidos con Zipf); 0 = crear uno (0)
+ *   password     contraseña de las cuentas (password)
+ *   page-size    posts por página del feed (20)
+ *   threads      virtual o platform (virtual)
+ *   seed         semilla de la elección de operaciones y streams (42)
+ */
+public class LoadGenerator {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    enum Operation {
+        FEED, STREAM, WRITE, LOGIN
+    }
+
+    private final Map<String, String> options;
+    private final String baseUrl;
+    private final int concurrency;
+    // Sufijo de las cuentas y el stream creados, único por ejecución
+    private final String runId = Long.toString(System.currentTimeMillis() % 100_000_000, 36);
+    private boolean virtualThreads;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public LoadGenerator(Map<String, String> options) {
+        this.options = options;
+        this.baseUrl = option("base-url", "http://localhost:8080");
+        this.concurrency = Integer.parseInt(option("concurrency", "64"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadGenerator(options).run();
+    }
+
+    public void run() throws Exception {
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("warmup", "5")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("duration", "30")));
+        double rate = Double.parseDouble(option("rate", "0"));
+        Operation[] mix = parseMix(option("mix", "feed=70,stream=10,write=15,login=5"));
+        long seed = Long.parseLong(option("seed", "42"));
+
+        List<Account> accounts = createAccounts();
+        long[] streamIds = streamIds(accounts.get(0));
+        ZipfSampler streamSampler = new ZipfSampler(streamIds.length, 1.2);
+
+        ExecutorService executor = newExecutor(option("threads", "virtual").equals("virtual"));
+        System.out.printf("%d clientes en hilos %s contra %s, %s, %ds de calentamiento + %ds%n",
+                concurrency, virtualThreads ? "virtuales" : "de plataforma", baseUrl,
+                rate > 0 ? String.format("%.0f ops/s", rate) : "bucle cerrado",
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+
+        long start = System.nanoTime();
+        long measureStart = start + warmupNanos;
+        long deadline = measureStart + durationNanos;
+        long intervalNanos = rate > 0 ? (long) (1e9 / rate) : 0;
+        AtomicLong nextSlot = new AtomicLong();
+
+        List<Future<Client>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Client client = new Client(accounts.get(i), new SplittableRandom(seed + i));
+            futures.add(executor.submit(() -> {
+                client.run(mix, streamIds, streamSampler, start, measureStart, deadline, intervalNanos, nextSlot);
+                return client;
+            }));
+        }
+
+        Map<Operation, Histogram> histograms = new HashMap<>();
+        long[][] statuses = new long[Operation.values().length][3];
+        for (Future<Client> future : futures) {
+            Client client = future.get();
+            for (Operation operation : Operation.values()) {
+                histograms.computeIfAbsent(operation, o -> newHistogram()).add(client.histograms[operation.ordinal()]);
+                for (int s = 0; s < 3; s++) {
+                    statuses[operation.ordinal()][s] += client.statuses[operation.ordinal()][s];
+                }
+            }
+        }
+        executor.shutdown();
+
+        report(histograms, statuses, durationNanos / 1e9);
+    }
+
+    /**
+     * Cliente con su propia cuenta; los histogramas y contadores son locales al cliente
+     */
+    private class Client {
+        private final Account account;
+        private final SplittableRandom random;
+        private final Histogram[] histograms = new Histogram[Operation.values().length];
+        // Por operación: respuestas correctas, 429 y errores
+        private final long[][] statuses = new long[Operation.values().length][3];
+
+        Client(Account account, SplittableRandom random) {
+            this.account = account;
+            this.random = random;
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = newHistogram();
+            }
+        }
+
+        void run(Operation[] mix, long[] streamIds, ZipfSampler streamSampler, long start, long measureStart,
+                 long deadline, long intervalNanos, AtomicLong nextSlot) {
+            while (true) {
+                long intended;
+                if (intervalNanos > 0) {
+                    intended = start + nextSlot.getAndIncrement() * intervalNanos;
+                    if (intended >= deadline) {
+                        return;
+                    }
+                    long wait;
+                    while ((wait = intended - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    intended = System.nanoTime();
+                    if (intended >= deadline) {
+                        return;
+                    }
+                }
+
+                Operation operation = mix[random.nextInt(mix.length)];
+                long streamId = streamIds[streamSampler.sample(random) - 1];
+                int status;
+                try {
+                    status = execute(operation, streamId);
+                } catch (Exception e) {
+                    status = -1;
+                }
+                long end = System.nanoTime();
+
+                if (intended >= measureStart) {
+                    histograms[operation.ordinal()].recordValue(Math.min(end - intended, MAX_LATENCY_NANOS));
+                    int bucket = status >= 200 && status < 400 ? 0 : status == 429 ? 1 : 2;
+                    statuses[operation.ordinal()][bucket]++;
+                }
+            }
+        }
+
+        private int execute(Operation operation, long streamId) throws Exception {
+            HttpRequest request = switch (operation) {
+                case FEED -> get("/api/posts/stream/" + streamId + "/feed?size=" + option("page-size", "20"));
+                case STREAM -> get("/api/streams/" + streamId);
+                case WRITE -> post("/api/posts/user/" + account.userId + "/stream/" + streamId,
+                        "{\"content\":\"Post de carga " + random.nextLong() + "\"}");
+                case LOGIN -> post("/api/auth/signin", loginBody(account.username));
+            };
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+
+        private HttpRequest get(String path) {
+            return request(path).GET().build();
+        }
+
+        private HttpRequest post(String path, String body) {
+            return request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + account.token);
+        }
+    }
+
+    private record Account(String username, long userId, String token) {
+    }
+
+    // Una cuenta por cliente: usuarios sembrados o cuentas nuevas registradas para esta ejecución
+    private List<Account> createAccounts() throws Exception {
+        int seededUsers = Integer.parseInt(option("users", "0"));
+        List<Account> accounts = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String username;
+            if (seededUsers > 0) {
+                username = "user" + (1 + i % seededUsers);
+            } else {
+                username = "lt" + runId + "_" + i;
+                String signUp = objectMapper.writeValueAsString(Map.of(
+                        "username", username,
+                        "email", username + "@example.com",
+                        "password", option("password", "password")));
+                expectOk(send("POST", "/api/auth/signup", signUp, null), "signup " + username);
+            }
+
+            JsonNode login = objectMapper.readTree(expectOk(send("POST", "/api/auth/signin", loginBody(username), null),
+                    "signin " + username));
+            String token = login.get("accessToken").asText();
+            accounts.add(new Account(username, userIdFromToken(token), token));
+        }
+        return accounts;
+    }
+
+    private long[] streamIds(Account account) throws Exception {
+        int seededStreams = Integer.parseInt(option("streams", "0"));
+        if (seededStreams > 0) {
+            long[] ids = new long[seededStreams];
+            for (int i = 0; i < seededStreams; i++) {
+                ids[i] = i + 1;
+            }
+            return ids;
+        }
+        String body = "{\"name\":\"carga-" + runId + "\",\"description\":\"Stream de prueba de carga\"}";
+        JsonNode stream = objectMapper.readTree(expectOk(send("POST", "/api/streams", body, account.token), "create stream"));
+        return new long[]{stream.get("id").asLong()};
+    }
+
+    // El token incluye el ID del usuario en el claim "uid"
+    private long userIdFromToken(String token) throws Exception {
+        String payload = token.substring(token.indexOf('.') + 1, token.lastIndexOf('.'));
+        JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(payload));
+        return claims.get("uid").asLong();
+    }
+
+    private String loginBody(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + option("password", "password") + "\"}";
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String token) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String expectOk(HttpResponse<String> response, String action) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(action + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static Operation[] parseMix(String mix) {
+        List<Operation> slots = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation operation = Operation.valueOf(parts[0].trim().toUpperCase());
+            int weight = Integer.parseInt(parts[1].trim());
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("Empty mix: " + mix);
+        }
+        return slots.toArray(new Operation[0]);
+    }
+
+    // Hilos virtuales por reflexión para que compile con Java 17
+    private ExecutorService newExecutor(boolean preferVirtual) {
+        if (preferVirtual) {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                ExecutorService executor = (ExecutorService) factory.invoke(null);
+                virtualThreads = true;
+                return executor;
+            } catch (NoSuchMethodException e) {
+                System.out.println("Esta JVM no tiene hilos virtuales; se usan hilos de plataforma");
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return Executors.newFixedThreadPool(concurrency);
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(MAX_LATENCY_NANOS, 3);
+    }
+
+    private static void report(Map<Operation, Histogram> histograms, long[][] statuses, double seconds) {
+        System.out.printf("%n%-8s %9s %8s %7s %7s %10s %9s %9s %9s %9s %9s%n",
+                "op", "total", "ok", "429", "error", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = newHistogram();
+        long[] totals = new long[3];
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long[] counts = statuses[operation.ordinal()];
+            if (histogram.getTotalCount() > 0) {
+                printRow(operation.name().toLowerCase(), histogram, counts, seconds);
+            }
+            all.add(histogram);
+            for (int s = 0; s < 3; s++) {
+                totals[s] += counts[s];
+            }
+        }
+        printRow("total", all, totals, seconds);
+    }
+
+    private static void printRow(String name, Histogram histogram, long[] counts, double seconds) {
+        System.out.printf("%-8s %9d %8d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getTotalCount(), counts[0], counts[1], counts[2], histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+}
@@ -0,0 +1,149 @@
+package co.edu.escuelaing.microblog.loadtest;
+
+import co.edu.escuelaing.microblog.MicroblogApplication;
+import co.edu.escuelaing.microblog.ratelimit.TokenBucketRateLimiter;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compara el modo de hilos de plataforma con el de hilos virtuales bajo la misma carga.
+ *
+ * Para cada modo arranca la aplicación en una JVM nueva con el perfil seed (mismos datos
+ * con la misma semilla), ejecuta LoadGenerator contra ella y la detiene. En el modo virtual
+ * la JVM hija se lanza con -Djdk.tracePinnedThreads=short y se cuentan los avisos de hilos
+ * virtuales anclados a su portador por un bloque synchronized.
+ *
+ * La JVM hija debe ser Java 21+ para que el modo virtual tenga efecto:
+ * mvn -P load-test test-compile exec:exec -Dloadtest.main=co.edu.escuelaing.microblog.loadtest.ThreadModeComparison \
+ *     -Dloadtest.args="--java=/ruta/jdk21/bin/java --concurrency=400 --tomcat-threads=50"
+ *
+ * Opciones propias (el resto se pasan a LoadGenerator):
+ *   java            ejecutable java de la JVM de la aplicación (el de esta JVM)
+ *   tomcat-threads  server.tomcat.threads.max en modo plataforma (200)
+ *   seed-users      usuarios sembrados (1000)
+ *   seed-streams    streams sembrados (100)
+ *   seed-posts      posts sembrados (200000)
+ */
+public class ThreadModeComparison {
+
+    private static final String READY_MARKER = "Seeded users";
+    private static final String PINNED_MARKER = "<== monitors:";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        String java = options.remove("java");
+        if (java == null) {
+            java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        }
+        String tomcatThreads = options.getOrDefault("tomcat-threads", "200");
+        options.remove("tomcat-threads");
+        String seedUsers = options.getOrDefault("seed-users", "1000");
+        String seedStreams = options.getOrDefault("seed-streams", "100");
+        String seedPosts = options.getOrDefault("seed-posts", "200000");
+        options.remove("seed-users");
+        options.remove("seed-streams");
+        options.remove("seed-posts");
+        options.putIfAbsent("users", seedUsers);
+        options.putIfAbsent("streams", seedStreams);
+
+        for (boolean virtual : new boolean[]{false, true}) {
+            int port = freePort();
+            List<String> command = new ArrayList<>(List.of(java, "-Dspring.devtools.restart.enabled=false"));
+            if (virtual) {
+                command.add("-Djdk.tracePinnedThreads=short");
+            }
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), MicroblogApplication.class.getName(),
+                    "--server.port=" + port,
+                    "--spring.profiles.active=seed",
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    "--server.tomcat.threads.max=" + tomcatThreads,
+                    "--app.seed.users=" + seedUsers,
+                    "--app.seed.streams=" + seedStreams,
+                    "--app.seed.posts=" + seedPosts,
+                    "--app.rate-limit.posts-create.capacity=" + TokenBucketRateLimiter.MAX_CAPACITY,
+                    "--app.rate-limit.posts-create.refill-per-second=10000",
+                    "--logging.level.root=WARN",
+                    "--logging.level.co.edu.escuelaing.microblog.seed=INFO",
+                    "--logging.level.co.edu.escuelaing.microblog.threading=INFO"));
+
+            System.out.printf("%n=== %s ===%n", virtual ? "hilos virtuales" : "hilos de plataforma (" + tomcatThreads + ")");
+            Process app = new ProcessBuilder(command).redirectErrorStream(true).start();
+            CountDownLatch ready = new CountDownLatch(1);
+            AtomicInteger pinned = new AtomicInteger();
+            Map<String, Integer> pinnedFrames = new LinkedHashMap<>();
+            Thread reader = new Thread(() -> readOutput(app, ready, pinned, pinnedFrames), "app-output");
+            reader.setDaemon(true);
+            reader.start();
+
+            try {
+                if (!ready.await(10, TimeUnit.MINUTES) || !app.isAlive()) {
+                    throw new IllegalStateException("The application did not start; see its output above");
+                }
+                Map<String, String> loadOptions = new HashMap<>(options);
+                loadOptions.put("base-url", "http://localhost:" + port);
+                new LoadGenerator(loadOptions).run();
+            } finally {
+                app.destroy();
+                app.waitFor(30, TimeUnit.SECONDS);
+                reader.join(TimeUnit.SECONDS.toMillis(5));
+            }
+
+            if (virtual) {
+                System.out.printf("Hilos virtuales anclados: %d%n", pinned.get());
+                synchronized (pinnedFrames) {
+                    pinnedFrames.forEach((frame, count) -> System.out.printf("  %6d  %s%n", count, frame));
+                }
+            }
+        }
+    }
+
+    // Reenvía los avisos y errores de la aplicación y cuenta los eventos de pinning
+    private static void readOutput(Process app, CountDownLatch ready, AtomicInteger pinned,
+                                   Map<String, Integer> pinnedFrames) {
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(app.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.contains(PINNED_MARKER)) {
+                    pinned.incrementAndGet();
+                    synchronized (pinnedFrames) {
+                        pinnedFrames.merge(line.trim(), 1, Integer::sum);
+                    }
+                } else if (line.startsWith("Thread[") || line.startsWith("    ")) {
+                    continue;
+                } else {
+                    System.out.println("  app | " + line);
+                }
+                if (line.contains(READY_MARKER)) {
+                    ready.countDown();
+                }
+            }
+        } catch (IOException e) {
+            // La aplicación terminó
+        } finally {
+            ready.countDown();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import org.junit.jupiter.api.function.Executable;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aserciones para fijar en las pruebas cuántas sentencias SQL ejecuta una operación.
+ *
+ * Requieren que el DataSource esté envuelto por QueryStatsPostProcessor. Las variantes
+ * con Executable miden en el hilo de la prueba; las de ResultMatcher leen las cabeceras
+ * que QueryStatsFilter añade a las respuestas de MockMvc.
+ *
+ *   QueryStatsAssertions.assertStatements(1, () -> postRepository.findFeedByStream(id, Limit.of(20)));
+ *   mockMvc.perform(get("/api/streams")).andExpect(QueryStatsAssertions.maxStatements(1));
+ */
+public final class QueryStatsAssertions {
+
+    private QueryStatsAssertions() {
+    }
+
+    /**
+     * Ejecuta la acción y devuelve lo que se contó mientras tanto
+     */
+    public static QueryStats capture(Executable action) {
+        QueryStats stats = QueryStats.start();
+        try {
+            action.execute();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new AssertionFailedError("Action failed while counting statements", e);
+        } finally {
+            QueryStats.stop();
+        }
+        return stats;
+    }
+
+    public static void assertStatements(int expected, Executable action) {
+        QueryStats stats = capture(action);
+        assertEquals(expected, stats.getStatements(), () -> "Unexpected statement count: " + describe(stats));
+    }
+
+    public static void assertMaxStatements(int max, Executable action) {
+        QueryStats stats = capture(action);
+        assertTrue(stats.getStatements() <= max, () -> "Expected at most " + max + " statements: " + describe(stats));
+    }
+
+    /**
+     * Falla si alguna sentencia se ejecutó más de maxExecutions veces (síntoma de N+1)
+     */
+    public static void assertNoRepeatedStatements(int maxExecutions, Executable action) {
+        QueryStats stats = capture(action);
+        Map.Entry<String, Integer> repeated = stats.getMostRepeated();
+        assertTrue(repeated == null || repeated.getValue() <= maxExecutions,
+                () -> "Statement ran " + repeated.getValue() + " times: " + repeated.getKey());
+    }
+
+    public static ResultMatcher statements(int expected) {
+        return result -> assertEquals(String.valueOf(expected),
+                result.getResponse().getHeader(QueryStatsFilter.STATEMENTS_HEADER), "Unexpected statement count");
+    }
+
+    public static ResultMatcher maxStatements(int max) {
+        return result -> {
+            String header = result.getResponse().getHeader(QueryStatsFilter.STATEMENTS_HEADER);
+            assertNotNull(header, "Response has no " + QueryStatsFilter.STATEMENTS_HEADER + " header");
+            assertTrue(Integer.parseInt(header) <= max, () -> "Expected at most " + max + " statements, got " + header);
+        };
+    }
+
+    private static String describe(QueryStats stats) {
+        Map.Entry<String, Integer> repeated = stats.getMostRepeated();
+        return repeated == null ? stats.toString()
+                : stats + "; most repeated (" + repeated.getValue() + "x): " + repeated.getKey();
+    }
+}
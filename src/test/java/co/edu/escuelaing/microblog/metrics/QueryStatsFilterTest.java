@@ -0,0 +1,105 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryStatsFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private QueryStatsFilter filter;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        QueryStatsReporter reporter = new QueryStatsReporter();
+        ReflectionTestUtils.setField(reporter, "meterRegistry", registry);
+
+        filter = new QueryStatsFilter();
+        ReflectionTestUtils.setField(filter, "reporter", reporter);
+        ReflectionTestUtils.setField(filter, "headerEnabled", true);
+
+        DataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:query-stats-filter", "sa", "");
+        jdbc = new JdbcTemplate((DataSource) new QueryStatsPostProcessor().postProcessAfterInitialization(h2, "dataSource"));
+    }
+
+    @Test
+    void doFilter_ShouldAddHeadersBeforeBodyIsCommitted() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/posts/{postId}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act: la segunda consulta se ejecuta después de empezar a escribir el cuerpo
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                jdbc.queryForObject("SELECT 1", Integer.class);
+                resp.getWriter().write("{\"id\":7,");
+                jdbc.queryForObject("SELECT 2", Integer.class);
+                resp.getWriter().write("\"user\":\"alice\"}");
+                resp.flushBuffer();
+            }
+        }));
+
+        // Assert
+        assertEquals("2", response.getHeader(QueryStatsFilter.STATEMENTS_HEADER));
+        assertEquals("2", response.getHeader(QueryStatsFilter.ROWS_HEADER));
+        assertNotNull(response.getHeader(QueryStatsFilter.TIME_HEADER));
+        DistributionSummary queries = registry.get("http.server.requests.queries")
+                .tags("method", "GET", "uri", "/api/posts/{postId}")
+                .summary();
+        assertEquals(2.0, queries.totalAmount());
+    }
+
+    @Test
+    void doFilter_WithEmptyResponse_ShouldStillAddHeaders() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/posts/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doDelete(HttpServletRequest req, HttpServletResponse resp) {
+                jdbc.queryForObject("SELECT 1", Integer.class);
+                resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+            }
+        }));
+
+        // Assert
+        assertEquals("1", response.getHeader(QueryStatsFilter.STATEMENTS_HEADER));
+        assertEquals(1, registry.get("http.server.requests.queries").tag("uri", "UNKNOWN").summary().count());
+    }
+
+    @Test
+    void doFilter_OutsideApi_ShouldNotCount() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/index.html");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // Assert
+        assertNull(response.getHeader(QueryStatsFilter.STATEMENTS_HEADER));
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
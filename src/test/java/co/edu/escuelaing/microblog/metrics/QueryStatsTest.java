@@ -0,0 +1,85 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryStatsTest {
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        DataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:query-stats;DB_CLOSE_DELAY=-1", "sa", "");
+        DataSource proxied = (DataSource) new QueryStatsPostProcessor().postProcessAfterInitialization(h2, "dataSource");
+        jdbc = new JdbcTemplate(proxied);
+        jdbc.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name VARCHAR(20))");
+        jdbc.batchUpdate("INSERT INTO items VALUES (?, ?)", List.of(
+                new Object[]{1L, "a"}, new Object[]{2L, "b"}, new Object[]{3L, "c"}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP TABLE items");
+    }
+
+    @Test
+    void capture_ShouldCountStatementsRowsReadAndRowsWritten() {
+        // Act
+        QueryStats stats = QueryStatsAssertions.capture(() -> {
+            jdbc.queryForList("SELECT name FROM items ORDER BY id", String.class);
+            jdbc.update("UPDATE items SET name = 'z' WHERE id < 3");
+        });
+
+        // Assert
+        assertEquals(2, stats.getStatements());
+        assertEquals(5, stats.getRows());
+        assertTrue(stats.getJdbcNanos() > 0);
+    }
+
+    @Test
+    void stop_ShouldAddNestedScopeToEnclosingScope() {
+        // Act
+        QueryStats outer = QueryStatsAssertions.capture(() -> {
+            jdbc.queryForObject("SELECT COUNT(*) FROM items", Long.class);
+            QueryStats inner = QueryStatsAssertions.capture(() ->
+                    jdbc.queryForObject("SELECT name FROM items WHERE id = 1", String.class));
+            assertEquals(1, inner.getStatements());
+        });
+
+        // Assert
+        assertEquals(2, outer.getStatements());
+        assertEquals(2, outer.getRows());
+    }
+
+    @Test
+    void getMostRepeated_ShouldReportStatementRunInALoop() {
+        // Act
+        QueryStats stats = QueryStatsAssertions.capture(() -> {
+            for (long id = 1; id <= 3; id++) {
+                jdbc.queryForObject("SELECT name FROM items WHERE id = ?", String.class, id);
+            }
+            jdbc.queryForObject("SELECT COUNT(*) FROM items", Long.class);
+        });
+
+        // Assert
+        assertEquals("SELECT name FROM items WHERE id = ?", stats.getMostRepeated().getKey());
+        assertEquals(3, stats.getMostRepeated().getValue());
+    }
+
+    @Test
+    void statementsOutsideScope_ShouldNotBeCounted() {
+        // Act
+        jdbc.queryForList("SELECT name FROM items", String.class);
+
+        // Assert
+        assertNull(QueryStats.stop());
+    }
+}
@@ -0,0 +1,120 @@
+package co.edu.escuelaing.microblog.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestTimingTest {
+
+    private static final Pattern HEADER = Pattern.compile(
+            "auth;dur=\\d+\\.\\d{3}, service;dur=(\\d+\\.\\d{3}), db;dur=(\\d+\\.\\d{3}), "
+                    + "serialization;dur=\\d+\\.\\d{3}, total;dur=(\\d+\\.\\d{3})");
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.stop();
+        QueryStats.stop();
+    }
+
+    @Test
+    void phases_ShouldNotOverlap() {
+        // Arrange
+        RequestTiming timing = RequestTiming.start();
+        RequestTiming.authFinished(System.nanoTime() - 2_000_000);
+        QueryStats.start();
+        timing.handlerStarted();
+
+        // Act
+        QueryStats.current().queryStarted();
+        sleepMillis(5);
+        QueryStats.current().queryFinished("select 1", 0);
+        timing.serializationStarted();
+        QueryStats.current().queryStarted();
+        sleepMillis(5);
+        QueryStats.current().queryFinished("select 2", 0);
+        timing.serializationFinished();
+        timing.handlerFinished();
+
+        // Assert
+        assertTrue(timing.getAuthNanos() >= 2_000_000);
+        assertTrue(timing.getDbNanos() >= 10_000_000);
+        assertTrue(timing.getServiceNanos() < 5_000_000, "service excludes the query: " + timing.getServiceNanos());
+        assertTrue(timing.getSerializationNanos() < 5_000_000, "serialization excludes lazy loads");
+        long phases = timing.getAuthNanos() + timing.getServiceNanos() + timing.getDbNanos() + timing.getSerializationNanos();
+        assertTrue(phases <= timing.getElapsedNanos() + 2_000_000);
+    }
+
+    @Test
+    void toHeader_ShouldUseMillisecondsWithThreeDecimals() {
+        // Arrange
+        RequestTiming timing = RequestTiming.start();
+        QueryStats.start();
+        timing.handlerStarted();
+        QueryStats.current().queryStarted();
+        sleepMillis(1);
+        QueryStats.current().queryFinished("select 1", 0);
+        timing.handlerFinished();
+
+        // Act
+        String header = timing.toHeader();
+
+        // Assert
+        Matcher matcher = HEADER.matcher(header);
+        assertTrue(matcher.matches(), header);
+        assertTrue(Double.parseDouble(matcher.group(2)) >= 1.0);
+        assertTrue(Double.parseDouble(matcher.group(3)) >= Double.parseDouble(matcher.group(2)));
+    }
+
+    @Test
+    void toHeader_WithoutQueryStats_ShouldOmitDb() {
+        // Arrange
+        RequestTiming timing = RequestTiming.start();
+        timing.handlerStarted();
+        timing.handlerFinished();
+
+        // Act
+        String header = timing.toHeader();
+
+        // Assert
+        assertFalse(header.contains("db;"), header);
+        assertTrue(header.startsWith("auth;dur=0.000, service;dur="), header);
+    }
+
+    @Test
+    void toHeader_DuringSerialization_ShouldIncludeItSoFar() {
+        // Arrange
+        RequestTiming timing = RequestTiming.start();
+        timing.handlerStarted();
+        timing.serializationStarted();
+        sleepMillis(2);
+
+        // Act
+        long inProgress = timing.getSerializationNanos();
+        timing.serializationFinished();
+        timing.serializationFinished();
+
+        // Assert
+        assertTrue(inProgress >= 2_000_000, "serialization so far: " + inProgress);
+        assertTrue(timing.getSerializationNanos() >= inProgress);
+        assertEquals(timing.getSerializationNanos(), timing.getSerializationNanos());
+    }
+
+    @Test
+    void authFinished_WithoutTiming_ShouldDoNothing() {
+        // Act & Assert
+        assertDoesNotThrow(() -> RequestTiming.authFinished(System.nanoTime()));
+        assertNull(RequestTiming.current());
+    }
+
+    private static void sleepMillis(long millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(deadline - System.nanoTime());
+        }
+    }
+}
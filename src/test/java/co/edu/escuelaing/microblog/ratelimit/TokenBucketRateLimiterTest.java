@@ -0,0 +1,89 @@
+package co.edu.escuelaing.microblog.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketRateLimiterTest {
+
+    @Test
+    void tryAcquire_ShouldAllowBurstUpToCapacity() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 0.001, 1024);
+
+        // Act & Assert
+        assertEquals(2, limiter.tryAcquire(1L));
+        assertEquals(1, limiter.tryAcquire(1L));
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L) < 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketsPerClient() {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 0.001, 1024);
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L) < 0);
+        assertEquals(0, limiter.tryAcquire(2L));
+        assertEquals(0, limiter.tryAcquire(TokenBucketRateLimiter.keyOf("10.0.0.1")));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillLazily() throws InterruptedException {
+        // Arrange
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 100, 1024);
+        assertEquals(0, limiter.tryAcquire(1L));
+        long waitMillis = -limiter.tryAcquire(1L);
+
+        // Act
+        Thread.sleep(waitMillis + 20);
+
+        // Assert
+        assertTrue(waitMillis > 0 && waitMillis <= 10);
+        assertEquals(0, limiter.tryAcquire(1L));
+    }
+
+    @Test
+    void tryAcquire_With32Threads_ShouldNeverGrantMoreThanCapacity() throws Exception {
+        // Arrange
+        int threads = 32;
+        int capacity = 1000;
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(capacity, 0.001, 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int granted = 0;
+                for (int i = 0; i < 10_000; i++) {
+                    if (limiter.tryAcquire(42L) >= 0) {
+                        granted++;
+                    }
+                }
+                return granted;
+            }));
+        }
+        start.countDown();
+        int granted = 0;
+        for (Future<Integer> result : results) {
+            granted += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(capacity, granted);
+    }
+}
@@ -0,0 +1,146 @@
+package co.edu.escuelaing.microblog.repository;
+
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.metrics.QueryStats;
+import co.edu.escuelaing.microblog.metrics.QueryStatsAssertions;
+import co.edu.escuelaing.microblog.metrics.QueryStatsPostProcessor;
+import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fija el número de sentencias de las consultas del feed para que un cambio en las
+ * proyecciones no reintroduzca cargas perezosas (N+1) sin que nadie lo note
+ */
+@DataJpaTest
+@Import(QueryStatsPostProcessor.class)
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+public class PostRepositoryQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private Long streamId;
+
+    @BeforeEach
+    void setUp() {
+        Stream stream = new Stream();
+        stream.setName("general");
+        entityManager.persist(stream);
+        streamId = stream.getId();
+
+        for (int i = 1; i <= 3; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("secret123");
+            entityManager.persist(user);
+
+            Post post = new Post();
+            post.setContent("post " + i);
+            post.setUser(user);
+            post.setStream(stream);
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findFeedByStream_ShouldUseASingleStatement() {
+        // Act & Assert
+        QueryStatsAssertions.assertStatements(1, () ->
+                assertEquals(3, postRepository.findFeedByStream(streamId, Limit.of(20)).size()));
+    }
+
+    @Test
+    void sliceSummariesByStreamId_ShouldNotRunCountQuery() {
+        // Act & Assert
+        QueryStatsAssertions.assertStatements(1, () ->
+                postRepository.sliceSummariesByStreamId(streamId, PageRequest.of(0, 2)));
+    }
+
+    @Test
+    void findAll_WithLazyUserAccess_ShouldLoadEachUserSeparately() {
+        // Act: el patrón que evitan las proyecciones PostSummary
+        List<String> usernames = new ArrayList<>();
+        QueryStats stats = QueryStatsAssertions.capture(() ->
+                postRepository.findAll().forEach(post -> usernames.add(post.getUser().getUsername())));
+
+        // Assert
+        assertEquals(3, usernames.size());
+        assertEquals(4, stats.getStatements());
+        assertEquals(3, stats.getMostRepeated().getValue());
+    }
+
+    @Test
+    void saveAll_ShouldInsertInJdbcBatches() {
+        // Arrange
+        User user = entityManager.find(User.class, postRepository.findAll().get(0).getUserId());
+        Stream stream = entityManager.find(Stream.class, streamId);
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            posts.add(new Post("bulk " + i, user, stream));
+        }
+
+        // Act: 2 bloques nuevos de la secuencia y 3 lotes de 50 inserciones como máximo
+        QueryStats stats = QueryStatsAssertions.capture(() -> {
+            postRepository.saveAll(posts);
+            entityManager.flush();
+        });
+
+        // Assert
+        assertEquals(5, stats.getStatements(), stats::toString);
+        assertTrue(posts.get(119).getId() > posts.get(0).getId());
+    }
+
+    @Test
+    void summaries_ShouldNotRepeatStatements() {
+        // Act & Assert
+        QueryStatsAssertions.assertNoRepeatedStatements(1, () -> {
+            postRepository.findFeedByStream(streamId, Limit.of(20));
+            postRepository.findAllSummaries(PageRequest.of(0, 20));
+        });
+    }
+
+    @Test
+    void findAllSummaries_WithSoftDeletedUser_ShouldCountOnlyVisiblePosts() {
+        // Arrange: el usuario queda marcado como borrado y sus posts esperan a la purga
+        User deleted = entityManager.getEntityManager()
+                .createQuery("SELECT u FROM User u WHERE u.username = 'user1'", User.class)
+                .getSingleResult();
+        deleted.setDeletedAt(LocalDateTime.now());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act: páginas de un elemento, para que Spring Data ejecute el conteo
+        Page<PostSummary> page = postRepository.findAllSummaries(PageRequest.of(0, 1));
+
+        // Assert
+        assertEquals(2, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(2, postRepository.findSummariesByStreamId(streamId, PageRequest.of(0, 1)).getTotalElements());
+        assertEquals(2, postRepository.countSummaries());
+        assertEquals(3, postRepository.countByStreamId(streamId));
+    }
+}
@@ -8,10 +8,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -88,4 +91,84 @@ public class JwtTokenProviderTest {
         // Assert
         assertEquals("testuser", subject);
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseToken_WithRepeatedToken_ShouldReuseVerifiedClaims() {
+        // Arrange
+        String token = tokenProvider.generateToken("testuser");
+
+        // Act
+        Claims first = tokenProvider.parseToken(token);
+        Claims second = tokenProvider.parseToken(token);
+
+        // Assert
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals("testuser", second.getSubject());
+    }
+
+    @Test
+    void parseToken_WithExpiredToken_ShouldReturnNull() {
+        // Arrange
+        when(jwtConfig.getExpirationMs()).thenReturn(-1000L);
+        String token = tokenProvider.generateToken("testuser");
+
+        // Act & Assert
+        assertNull(tokenProvider.parseToken(token));
+        assertFalse(tokenProvider.validateToken(token));
+    }
+
+    @Test
+    void parseToken_WithTamperedToken_ShouldReturnNull() {
+        // Arrange
+        String token = tokenProvider.generateToken("testuser");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertNull(tokenProvider.parseToken(tampered));
+    }
+
+    @Test
+    void getPrincipalFromClaims_ShouldRebuildPrincipalWithoutLookup() {
+        // Arrange
+        UserPrincipal principal = new UserPrincipal(7L, "testuser", "test@example.com", "password",
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        String token = tokenProvider.generateToken(principal);
+
+        // Act
+        UserPrincipal result = tokenProvider.getPrincipalFromClaims(tokenProvider.parseToken(token));
+
+        // Assert
+        assertEquals(7L, result.getId());
+        assertEquals("testuser", result.getUsername());
+        assertEquals("ROLE_USER", result.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void getPrincipalFromClaims_WithUsernameOnlyToken_ShouldReturnNull() {
+        // Arrange
+        String token = tokenProvider.generateToken("testuser");
+
+        // Act & Assert
+        assertNull(tokenProvider.getPrincipalFromClaims(tokenProvider.parseToken(token)));
+    }
+
+    @Test
+    void parseToken_AfterRevocation_ShouldRejectOlderTokens() {
+        // Arrange
+        TokenVersionRegistry registry = new TokenVersionRegistry();
+        ReflectionTestUtils.setField(registry, "enabled", true);
+        ReflectionTestUtils.setField(tokenProvider, "tokenVersionRegistry", registry);
+        UserPrincipal principal = new UserPrincipal(7L, "testuser", null, null, List.of());
+        String oldToken = tokenProvider.generateToken(principal);
+        assertNotNull(tokenProvider.parseToken(oldToken));
+
+        // Act
+        registry.revoke(7L);
+        String newToken = tokenProvider.generateToken(principal);
+
+        // Assert
+        assertNull(tokenProvider.parseToken(oldToken));
+        assertNotNull(tokenProvider.parseToken(newToken));
+    }
+}
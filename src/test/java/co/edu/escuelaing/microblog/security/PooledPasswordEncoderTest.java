@@ -0,0 +1,81 @@
+package co.edu.escuelaing.microblog.security;
+
+import co.edu.escuelaing.microblog.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PooledPasswordEncoderTest {
+
+    private PooledPasswordEncoder encoder;
+    private ExecutorService callers;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+        if (callers != null) {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void matches_ShouldDelegateAndRecordLatency() {
+        // Arrange
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+        encoder = new PooledPasswordEncoder(delegate, 1, 1);
+
+        // Act
+        boolean result = encoder.matches("secret", "hash");
+
+        // Assert
+        assertTrue(result);
+        assertEquals(1, encoder.getCompletedCount());
+        assertTrue(encoder.getTotalHashNanos() > 0);
+    }
+
+    @Test
+    void encode_WithFullQueue_ShouldRejectWithRetryAfter() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        encoder = new PooledPasswordEncoder(delegate, 1, 1);
+        callers = Executors.newFixedThreadPool(2);
+
+        Future<String> running = callers.submit(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> encoder.encode("second"));
+        while (encoder.getQueueDepth() < 1) {
+            Thread.sleep(1);
+        }
+
+        // Act
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> encoder.encode("third"));
+
+        // Assert
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        assertEquals(1, encoder.getRejectedCount());
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+}
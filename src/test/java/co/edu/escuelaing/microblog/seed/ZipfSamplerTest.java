@@ -0,0 +1,65 @@
+package co.edu.escuelaing.microblog.seed;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZipfSamplerTest {
+
+    @Test
+    void sample_ShouldStayWithinRange() {
+        // Arrange
+        ZipfSampler sampler = new ZipfSampler(50, 1.1);
+        SplittableRandom random = new SplittableRandom(1);
+
+        // Act & Assert
+        for (int i = 0; i < 100_000; i++) {
+            int rank = sampler.sample(random);
+            assertTrue(rank >= 1 && rank <= 50, "rank out of range: " + rank);
+        }
+    }
+
+    @Test
+    void sample_ShouldFollowPowerLaw() {
+        // Arrange
+        ZipfSampler sampler = new ZipfSampler(1000, 1.0);
+        SplittableRandom random = new SplittableRandom(7);
+        int[] counts = new int[1001];
+
+        // Act
+        for (int i = 0; i < 1_000_000; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        // Assert: con exponente 1, P(1) / P(k) = k
+        assertEquals(2.0, (double) counts[1] / counts[2], 0.1);
+        assertEquals(10.0, (double) counts[1] / counts[10], 0.6);
+        double harmonic = 0;
+        for (int k = 1; k <= 1000; k++) {
+            harmonic += 1.0 / k;
+        }
+        assertEquals(1.0 / harmonic, counts[1] / 1_000_000.0, 0.005);
+    }
+
+    @Test
+    void sample_WithSameSeed_ShouldBeReproducible() {
+        // Arrange
+        ZipfSampler sampler = new ZipfSampler(100_000, 1.2);
+        SplittableRandom first = new SplittableRandom(42);
+        SplittableRandom second = new SplittableRandom(42);
+
+        // Act & Assert
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(sampler.sample(first), sampler.sample(second));
+        }
+    }
+
+    @Test
+    void constructor_WithInvalidArguments_ShouldFail() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(10, 0.0));
+    }
+}
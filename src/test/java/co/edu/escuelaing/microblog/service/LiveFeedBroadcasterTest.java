@@ -0,0 +1,218 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.dto.CursorPage;
+import co.edu.escuelaing.microblog.dto.FeedCursor;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.event.PostEvent;
+import co.edu.escuelaing.microblog.event.StreamDeletedEvent;
+import co.edu.escuelaing.microblog.exception.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LiveFeedBroadcasterTest {
+
+    private PostService postService;
+    private LiveFeedBroadcaster broadcaster;
+    private ManualExecutor sender;
+    private long nextPostId;
+
+    @BeforeEach
+    void setUp() {
+        postService = mock(PostService.class);
+        broadcaster = new LiveFeedBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "postService", postService);
+        ReflectionTestUtils.setField(broadcaster, "bufferSize", 2);
+        ReflectionTestUtils.setField(broadcaster, "maxDropped", 3);
+        broadcaster.start();
+
+        // Los envíos solo se ejecutan cuando la prueba lo pide, como un cliente que no consume
+        ((ExecutorService) ReflectionTestUtils.getField(broadcaster, "sender")).shutdownNow();
+        sender = new ManualExecutor();
+        ReflectionTestUtils.setField(broadcaster, "sender", sender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.stop();
+    }
+
+    @Test
+    void onPostEvent_ShouldFanOutOnlyToSubscribersOfTheStream() {
+        // Arrange
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(2L);
+
+        // Act
+        broadcaster.onPostEvent(PostEvent.created(post(1L)));
+        broadcaster.onPostEvent(PostEvent.updated(post(2L)));
+
+        // Assert: un envío por suscriptor del stream 1; las ediciones no se difunden
+        assertEquals(2, sender.pending());
+        assertEquals(2, sender.runAll());
+        assertEquals(2, broadcaster.subscriberCount(1L));
+        assertEquals(1, broadcaster.subscriberCount(2L));
+    }
+
+    @Test
+    void onPostEvent_WithSlowSubscriber_ShouldDropThenClose() {
+        // Arrange
+        SseEmitter slow = broadcaster.subscribe(1L);
+
+        // Act & Assert: 2 posts caben en el buffer y 3 se descartan sin cerrar
+        for (int i = 0; i < 5; i++) {
+            broadcaster.onPostEvent(PostEvent.created(post(1L)));
+        }
+        assertEquals(1, broadcaster.subscriberCount(1L));
+
+        // Un post entregado reinicia la cuenta de descartes
+        sender.runAll();
+        for (int i = 0; i < 5; i++) {
+            broadcaster.onPostEvent(PostEvent.created(post(1L)));
+        }
+        assertEquals(1, broadcaster.subscriberCount(1L));
+
+        // El cuarto descarte seguido cierra la conexión
+        broadcaster.onPostEvent(PostEvent.created(post(1L)));
+        assertEquals(0, broadcaster.subscriberCount(1L));
+        assertThrows(IllegalStateException.class, () -> slow.send("late"));
+    }
+
+    @Test
+    void onStreamDeleted_ShouldCloseAndRemoveItsSubscribers() {
+        // Arrange
+        SseEmitter first = broadcaster.subscribe(1L);
+        SseEmitter second = broadcaster.subscribe(1L);
+        SseEmitter other = broadcaster.subscribe(2L);
+
+        // Act
+        broadcaster.onStreamDeleted(new StreamDeletedEvent(1L));
+        broadcaster.onPostEvent(PostEvent.created(post(1L)));
+
+        // Assert
+        assertEquals(0, broadcaster.subscriberCount(1L));
+        assertEquals(0, sender.pending());
+        assertThrows(IllegalStateException.class, () -> first.send("late"));
+        assertThrows(IllegalStateException.class, () -> second.send("late"));
+        assertEquals(1, broadcaster.subscriberCount(2L));
+        assertDoesNotThrow(() -> other.send("still open"));
+    }
+
+    @Test
+    void subscribe_WithLastEventId_ShouldReplayMissedPostsBeforeLiveOnes() {
+        // Arrange: el cliente vio el primer post; el segundo y el tercero se publicaron sin él
+        PostSummary seen = post(1L);
+        PostSummary missed = post(1L);
+        PostSummary missedAndLive = post(1L);
+        PostSummary live = post(1L);
+        String lastEventId = FeedCursor.of(seen).encode();
+        when(postService.getPostsSince(1L, lastEventId, PostService.MAX_FEED_SIZE))
+                .thenReturn(new CursorPage<>(List.of(missed, missedAndLive), "next", false));
+
+        // Act: los posts que llegan durante la reposición esperan en el buffer
+        SseEmitter emitter = broadcaster.subscribe(1L, lastEventId);
+        broadcaster.onPostEvent(PostEvent.created(missedAndLive));
+        broadcaster.onPostEvent(PostEvent.created(live));
+        sender.runAll();
+
+        // Assert: en orden y sin repetir el que llegó por las dos vías
+        assertEquals(List.of(missed.getId(), missedAndLive.getId(), live.getId()), sentPostIds(emitter));
+        assertEquals(1, broadcaster.subscriberCount(1L));
+    }
+
+    @Test
+    void subscribe_WithMalformedLastEventId_ShouldFailBeforeSubscribing() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> broadcaster.subscribe(1L, "not a cursor"));
+        assertEquals(0, broadcaster.subscriberCount(1L));
+        assertEquals(0, sender.pending());
+    }
+
+    // Antes de que el contenedor la inicialice, el emisor guarda los eventos enviados
+    @SuppressWarnings("unchecked")
+    private List<Long> sentPostIds(SseEmitter emitter) {
+        Set<ResponseBodyEmitter.DataWithMediaType> sent =
+                (Set<ResponseBodyEmitter.DataWithMediaType>) ReflectionTestUtils.getField(emitter, "earlySendAttempts");
+        return sent.stream()
+                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                .filter(PostSummary.class::isInstance)
+                .map(data -> ((PostSummary) data).getId())
+                .toList();
+    }
+
+    private PostSummary post(Long streamId) {
+        long id = ++nextPostId;
+        return new PostSummary(id, "post " + id, LocalDateTime.now(), 1L, "alice", streamId, "general");
+    }
+
+    private static final class ManualExecutor extends AbstractExecutorService {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private boolean shutdown;
+
+        int pending() {
+            return tasks.size();
+        }
+
+        int runAll() {
+            int run = 0;
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+                run++;
+            }
+            return run;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> remaining = new ArrayList<>(tasks);
+            tasks.clear();
+            return remaining;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+}
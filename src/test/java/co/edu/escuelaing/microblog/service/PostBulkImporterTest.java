@@ -0,0 +1,128 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.dto.BulkImportResponse;
+import co.edu.escuelaing.microblog.dto.BulkPostRequest;
+import co.edu.escuelaing.microblog.exception.BadRequestException;
+import co.edu.escuelaing.microblog.metrics.QueryStats;
+import co.edu.escuelaing.microblog.metrics.QueryStatsAssertions;
+import co.edu.escuelaing.microblog.metrics.QueryStatsPostProcessor;
+import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.model.User;
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({PostBulkImporter.class, QueryStatsPostProcessor.class})
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = {"app.posts.bulk.chunk-size=1000", "app.posts.bulk.max-items=5000"})
+public class PostBulkImporterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostBulkImporter importer;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private Long userId;
+    private Long streamId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("importer");
+        user.setEmail("importer@example.com");
+        user.setPassword("secret123");
+        entityManager.persist(user);
+        userId = user.getId();
+
+        Stream stream = new Stream();
+        stream.setName("imports");
+        entityManager.persist(stream);
+        streamId = stream.getId();
+        entityManager.flush();
+    }
+
+    @Test
+    void importPosts_FromNdjson_ShouldReportEachItem() throws Exception {
+        // Arrange
+        String body = "{\"userId\":" + userId + ",\"streamId\":" + streamId + ",\"content\":\"first\"}\n"
+                + "{\"userId\":999,\"streamId\":" + streamId + ",\"content\":\"orphan\"}\n"
+                + "{\"userId\":" + userId + ",\"streamId\":" + streamId + ",\"content\":\"" + "x".repeat(141) + "\"}\n"
+                + "{\"userId\":" + userId + ",\"streamId\":" + streamId + ",\"content\":\"second\","
+                + "\"createdAt\":\"2020-01-01T10:00:00\"}\n";
+
+        // Act
+        BulkImportResponse response = importer.importPosts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getFailed());
+        assertNotNull(response.getResults().get(0).getId());
+        assertEquals("User not found with id : '999'", response.getResults().get(1).getError());
+        assertEquals("Post content exceeds 140 characters limit", response.getResults().get(2).getError());
+        assertEquals(3, response.getResults().get(3).getIndex());
+        assertEquals(2, postRepository.countByStreamId(streamId));
+        assertEquals(2020, postRepository.findById(response.getResults().get(3).getId()).orElseThrow()
+                .getCreatedAt().getYear());
+    }
+
+    @Test
+    void importPosts_FromJsonArray_ShouldCreatePosts() throws Exception {
+        // Arrange
+        String body = "[{\"userId\":" + userId + ",\"streamId\":" + streamId + ",\"content\":\"one\"},"
+                + "{\"userId\":" + userId + ",\"streamId\":" + streamId + ",\"content\":\"two\"}]";
+
+        // Act
+        BulkImportResponse response = importer.importPosts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, response.getCreated());
+        assertTrue(response.getResults().get(1).getId() > response.getResults().get(0).getId());
+    }
+
+    @Test
+    void importPosts_ShouldResolveReferencesOnceAndInsertOneBatchPerChunk() {
+        // Arrange
+        List<BulkPostRequest> items = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            items.add(new BulkPostRequest(userId, streamId, "post " + i));
+        }
+
+        // Act
+        QueryStats stats = QueryStatsAssertions.capture(() -> importer.importPosts(items));
+
+        // Assert: 1 consulta de usuarios, 1 de streams, 3 lotes y 50 bloques de la secuencia
+        assertEquals(55, stats.getStatements(), stats::toString);
+        assertEquals(2500, postRepository.countByStreamId(streamId));
+    }
+
+    @Test
+    void importPosts_WithMalformedDocument_ShouldRejectEverything() {
+        // Arrange
+        String body = "{\"userId\":" + userId + ",\"streamId\":" + streamId + ",\"content\":\"ok\"}\n{\"userId\":";
+
+        // Act & Assert
+        assertThrows(BadRequestException.class,
+                () -> importer.importPosts(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))));
+        assertEquals(0, postRepository.countByStreamId(streamId));
+    }
+}
@@ -0,0 +1,120 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
+import co.edu.escuelaing.microblog.exception.ServiceUnavailableException;
+import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.model.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(PostExporter.class)
+@ImportAutoConfiguration({PropertyPlaceholderAutoConfiguration.class, JacksonAutoConfiguration.class})
+@TestPropertySource(properties = {"app.posts.export.max-concurrent=1", "app.posts.export.flush-every=2"})
+public class PostExporterTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostExporter exporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long streamId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setUsername("exporter");
+        user.setEmail("exporter@example.com");
+        user.setPassword("secret123");
+        entityManager.persist(user);
+
+        Stream stream = new Stream();
+        stream.setName("exports");
+        entityManager.persist(stream);
+        streamId = stream.getId();
+
+        // Se insertan desordenados para comprobar el orden de la exportación
+        for (int day : new int[]{3, 1, 4, 2, 5}) {
+            Post post = new Post("day " + day, user, stream);
+            entityManager.persist(post);
+            post.setCreatedAt(BASE.plusDays(day));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void export_ShouldWriteOnePostPerLineOldestFirst() throws Exception {
+        // Act
+        String[] lines = write(exporter.export(streamId, null, null)).split("\n", -1);
+
+        // Assert
+        assertEquals(6, lines.length);
+        assertEquals("", lines[5]);
+        for (int i = 0; i < 5; i++) {
+            JsonNode post = objectMapper.readTree(lines[i]);
+            assertEquals("day " + (i + 1), post.get("content").asText());
+            assertEquals("exporter", post.get("username").asText());
+            assertEquals("exports", post.get("streamName").asText());
+        }
+    }
+
+    @Test
+    void export_WithRange_ShouldIncludeFromAndExcludeTo() throws Exception {
+        // Act
+        String body = write(exporter.export(streamId, BASE.plusDays(2), BASE.plusDays(4)));
+
+        // Assert
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"day 2\""));
+        assertTrue(lines[1].contains("\"day 3\""));
+    }
+
+    @Test
+    void export_WithUnknownStream_ShouldFailBeforeStreaming() {
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> exporter.export(999L, null, null));
+    }
+
+    @Test
+    void export_WhenAllSlotsBusy_ShouldBeUnavailableUntilReleased() throws Exception {
+        // Arrange
+        StreamingResponseBody first = exporter.export(streamId, null, null);
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> exporter.export(streamId, null, null));
+        write(first);
+        assertFalse(write(exporter.export(streamId, null, null)).isEmpty());
+    }
+
+    private static String write(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,126 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.dto.PurgeProgress;
+import co.edu.escuelaing.microblog.dto.PurgeProgress.Target;
+import co.edu.escuelaing.microblog.metrics.QueryStats;
+import co.edu.escuelaing.microblog.metrics.QueryStatsAssertions;
+import co.edu.escuelaing.microblog.metrics.QueryStatsPostProcessor;
+import co.edu.escuelaing.microblog.model.Post;
+import co.edu.escuelaing.microblog.model.Stream;
+import co.edu.escuelaing.microblog.model.User;
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import co.edu.escuelaing.microblog.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sin transacción de prueba: cada bloque de la purga confirma en su propia transacción
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PurgeJob.class, QueryStatsPostProcessor.class})
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@TestPropertySource(properties = "app.purge.chunk-size=1000")
+public class PurgeJobTest {
+
+    @Autowired
+    private PurgeJob purgeJob;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StreamRepository streamRepository;
+
+    private User user;
+    private Stream doomed;
+    private Stream kept;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime() % 1_000_000_000L;
+        user = userRepository.save(new User("purge" + suffix, "purge" + suffix + "@example.com", "secret123"));
+        doomed = streamRepository.save(new Stream("doomed" + suffix, null));
+        kept = streamRepository.save(new Stream("kept" + suffix, null));
+
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            posts.add(new Post("post " + i, user, doomed));
+        }
+        posts.add(new Post("survivor", user, kept));
+        postRepository.saveAll(posts);
+    }
+
+    @Test
+    void deletedStream_ShouldBeHiddenBeforePurge() {
+        // Arrange
+        doomed.setDeletedAt(LocalDateTime.now());
+        streamRepository.save(doomed);
+
+        // Act
+        List<PostSummary> feed = postRepository.findFeedByStream(doomed.getId(), Limit.of(10));
+
+        // Assert
+        assertTrue(streamRepository.findById(doomed.getId()).isEmpty());
+        assertTrue(feed.isEmpty());
+        assertEquals(2500, postRepository.countByStreamId(doomed.getId()));
+        assertTrue(streamRepository.findDeletedIds().contains(doomed.getId()));
+    }
+
+    @Test
+    void purge_Stream_ShouldDeletePostsInBoundedChunksThenTheRow() {
+        // Arrange
+        doomed.setDeletedAt(LocalDateTime.now());
+        streamRepository.save(doomed);
+        PurgeProgress progress = new PurgeProgress(Target.STREAM, doomed.getId());
+
+        // Act
+        QueryStats stats = QueryStatsAssertions.capture(() -> purgeJob.purge(progress));
+
+        // Assert: 1 conteo, 3 bloques de SELECT + DELETE, 1 SELECT vacío y el DELETE del stream
+        assertEquals(9, stats.getStatements(), stats::toString);
+        assertEquals(PurgeProgress.State.DONE, progress.getState());
+        assertEquals(2500, progress.getPostsTotal());
+        assertEquals(2500, progress.getPostsDeleted());
+        assertEquals(3, progress.getChunks());
+        assertEquals(0, postRepository.countByStreamId(doomed.getId()));
+        assertEquals(1, postRepository.countByStreamId(kept.getId()));
+        assertFalse(streamRepository.findDeletedIds().contains(doomed.getId()));
+    }
+
+    @Test
+    void purge_User_ShouldDeleteAllTheirPostsAndFreeTheUsername() {
+        // Arrange
+        user.setDeletedAt(LocalDateTime.now());
+        userRepository.save(user);
+        assertTrue(userRepository.findByUsername(user.getUsername()).isEmpty());
+        assertTrue(userRepository.existsByUsername(user.getUsername()));
+
+        // Act
+        purgeJob.purge(new PurgeProgress(Target.USER, user.getId()));
+
+        // Assert
+        assertEquals(0, postRepository.countByUserId(user.getId()));
+        assertEquals(0, postRepository.countByStreamId(kept.getId()));
+        assertFalse(userRepository.existsByUsername(user.getUsername()));
+        assertTrue(streamRepository.findById(kept.getId()).isPresent());
+    }
+}
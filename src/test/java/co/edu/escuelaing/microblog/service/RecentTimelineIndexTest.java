@@ -0,0 +1,179 @@
+package co.edu.escuelaing.microblog.service;
+
+import co.edu.escuelaing.microblog.dto.FeedCursor;
+import co.edu.escuelaing.microblog.dto.PostSummary;
+import co.edu.escuelaing.microblog.event.PostEvent;
+import co.edu.escuelaing.microblog.event.StreamDeletedEvent;
+import co.edu.escuelaing.microblog.repository.PostRepository;
+import co.edu.escuelaing.microblog.repository.StreamRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class RecentTimelineIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private StreamRepository streamRepository;
+
+    @InjectMocks
+    private RecentTimelineIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(index, "capacity", 4);
+        index.init();
+        when(streamRepository.existsById(1L)).thenReturn(true);
+    }
+
+    private static PostSummary post(long id) {
+        return new PostSummary(id, "post " + id, BASE.plusSeconds(id), 1L, "testuser", 1L, "teststream");
+    }
+
+    private static List<PostSummary> newestFirst(long from, long to) {
+        List<PostSummary> posts = new ArrayList<>();
+        for (long id = from; id >= to; id--) {
+            posts.add(post(id));
+        }
+        return posts;
+    }
+
+    private static List<Long> ids(List<PostSummary> posts) {
+        return posts.stream().map(PostSummary::getId).toList();
+    }
+
+    @Test
+    void readNewest_WithSmallStream_ShouldServeFromMemoryAfterFirstLoad() {
+        // Arrange
+        when(postRepository.findFeedByStream(eq(1L), any(Limit.class))).thenReturn(newestFirst(3, 1));
+
+        // Act
+        List<PostSummary> first = index.readNewest(1L, null, 0, 2);
+        List<PostSummary> second = index.readNewest(1L, null, 0, 10);
+
+        // Assert
+        assertEquals(List.of(3L, 2L), ids(first));
+        assertEquals(List.of(3L, 2L, 1L), ids(second));
+        verify(postRepository, times(1)).findFeedByStream(eq(1L), any(Limit.class));
+    }
+
+    @Test
+    void readNewest_BeyondRetainedWindow_ShouldReturnNull() {
+        // Arrange
+        when(postRepository.findFeedByStream(eq(1L), any(Limit.class))).thenReturn(newestFirst(10, 7));
+
+        // Act & Assert
+        assertEquals(List.of(8L, 7L), ids(index.readNewest(1L, new FeedCursor(BASE.plusSeconds(9), 9L), 0, 2)));
+        assertNull(index.readNewest(1L, new FeedCursor(BASE.plusSeconds(9), 9L), 0, 5));
+    }
+
+    @Test
+    void onPostEvent_ShouldKeepWindowOrderedAndBounded() {
+        // Arrange
+        when(postRepository.findFeedByStream(eq(1L), any(Limit.class))).thenReturn(newestFirst(4, 1));
+        index.readNewest(1L, null, 0, 1);
+
+        // Act
+        index.onPostEvent(PostEvent.created(post(6)));
+        index.onPostEvent(PostEvent.created(post(5)));
+        index.onPostEvent(PostEvent.deleted(post(4)));
+        index.onPostEvent(PostEvent.updated(post(6).withContent("edited")));
+
+        // Assert
+        List<PostSummary> posts = index.readNewest(1L, null, 0, 3);
+        assertEquals(List.of(6L, 5L, 3L), ids(posts));
+        assertEquals("edited", posts.get(0).getContent());
+        assertNull(index.readNewest(1L, null, 0, 4));
+    }
+
+    @Test
+    void readNewer_ShouldReturnOldestFirstAfterCursor() {
+        // Arrange
+        when(postRepository.findFeedByStream(eq(1L), any(Limit.class))).thenReturn(newestFirst(4, 1));
+
+        // Act
+        List<PostSummary> posts = index.readNewer(1L, new FeedCursor(BASE.plusSeconds(1), 1L), 2);
+
+        // Assert
+        assertEquals(List.of(2L, 3L), ids(posts));
+        assertEquals(List.of(), index.readNewer(1L, new FeedCursor(BASE.plusSeconds(4), 4L), 2));
+    }
+
+    @Test
+    void readNewer_WithCursorBeforeRetainedWindow_ShouldReturnNull() {
+        // Arrange
+        when(postRepository.findFeedByStream(eq(1L), any(Limit.class))).thenReturn(newestFirst(10, 7));
+
+        // Act & Assert
+        assertNull(index.readNewer(1L, new FeedCursor(BASE.plusSeconds(2), 2L), 2));
+        assertEquals(List.of(8L), ids(index.readNewer(1L, new FeedCursor(BASE.plusSeconds(7), 7L), 1)));
+    }
+
+    @Test
+    void highWaterMark_ShouldFollowNewestPost() {
+        // Arrange
+        when(postRepository.findFeedByStream(eq(1L), any(Limit.class))).thenReturn(List.of());
+
+        // Act
+        FeedCursor empty = index.highWaterMark(1L);
+        index.onPostEvent(PostEvent.created(post(5)));
+
+        // Assert
+        assertEquals(0, empty.compareTo(FeedCursor.ORIGIN));
+        assertEquals(5L, index.highWaterMark(1L).getId());
+    }
+
+    @Test
+    void onStreamDeleted_ShouldDropTimeline() {
+        // Arrange
+        when(postRepository.findFeedByStream(eq(1L), any(Limit.class))).thenReturn(newestFirst(2, 1));
+        index.readNewest(1L, null, 0, 1);
+
+        // Act
+        index.onStreamDeleted(new StreamDeletedEvent(1L));
+        when(streamRepository.existsById(1L)).thenReturn(false);
+
+        // Assert
+        assertNull(index.readNewest(1L, null, 0, 1));
+    }
+
+    @Test
+    void load_WhenFull_ShouldEvictLeastRecentlyUsedStream() {
+        // Arrange: caben dos streams y el 1 se lee después del 2
+        ReflectionTestUtils.setField(index, "maxStreams", 2);
+        when(streamRepository.existsById(anyLong())).thenReturn(true);
+        when(postRepository.findFeedByStream(anyLong(), any(Limit.class))).thenReturn(newestFirst(3, 1));
+        index.readNewest(1L, null, 0, 1);
+        index.readNewest(2L, null, 0, 1);
+        index.readNewest(1L, null, 0, 1);
+
+        // Act: un stream nuevo con el índice lleno
+        index.readNewest(3L, null, 0, 1);
+        index.readNewest(1L, null, 0, 1);
+        index.readNewest(2L, null, 0, 1);
+
+        // Assert: se expulsó el 2, que vuelve a cargarse
+        assertEquals(2, index.getStreamCount());
+        verify(postRepository, times(1)).findFeedByStream(eq(1L), any(Limit.class));
+        verify(postRepository, times(2)).findFeedByStream(eq(2L), any(Limit.class));
+    }
+}
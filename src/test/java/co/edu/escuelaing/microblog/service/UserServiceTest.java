@@ -1,15 +1,18 @@
 package co.edu.escuelaing.microblog.service;
 
+import co.edu.escuelaing.microblog.event.UserDeletedEvent;
 import co.edu.escuelaing.microblog.exception.BadRequestException;
 import co.edu.escuelaing.microblog.exception.ResourceAlreadyExistsException;
 import co.edu.escuelaing.microblog.exception.ResourceNotFoundException;
 import co.edu.escuelaing.microblog.model.User;
 import co.edu.escuelaing.microblog.repository.UserRepository;
+import co.edu.escuelaing.microblog.security.TokenVersionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Arrays;
@@ -28,6 +31,12 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
     @InjectMocks
     private UserService userService;
 
@@ -158,15 +167,38 @@ public class UserServiceTest {
     }
 
     @Test
-    void deleteUser_WithValidId_ShouldDeleteUser() {
+    void updateUser_WithNewPassword_ShouldRevokeIssuedTokens() {
         // Arrange
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        doNothing().when(userRepository).delete(any(User.class));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(passwordEncoder.encode("newpassword")).thenReturn("encoded");
+
+        User updateDetails = new User();
+        updateDetails.setUsername("testuser");
+        updateDetails.setEmail("test@example.com");
+        updateDetails.setPassword("newpassword");
+
+        // Act
+        userService.updateUser(1L, updateDetails);
+
+        // Assert
+        verify(tokenVersionRegistry, times(1)).revoke(1L);
+    }
+
+    @Test
+    void deleteUser_WithValidId_ShouldMarkUserDeleted() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Act
         userService.deleteUser(1L);
 
         // Assert
-        verify(userRepository, times(1)).delete(testUser);
+        assertNotNull(testUser.getDeletedAt());
+        verify(userRepository, times(1)).save(testUser);
+        verify(userRepository, never()).delete(any(User.class));
+        verify(tokenVersionRegistry, times(1)).revoke(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(UserDeletedEvent.class));
     }
 }
\ No newline at end of file
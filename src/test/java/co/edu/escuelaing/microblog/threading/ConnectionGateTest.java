@@ -0,0 +1,85 @@
+package co.edu.escuelaing.microblog.threading;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConnectionGateTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionGate gate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(dataSource.getConnection()).thenReturn(connection);
+        gate = new ConnectionGate(dataSource, 2, 50);
+    }
+
+    @Test
+    void getConnection_WhenAllPermitsTaken_ShouldTimeOut() throws SQLException {
+        // Arrange
+        gate.getConnection();
+        gate.getConnection();
+
+        // Act & Assert
+        assertThrows(SQLTransientConnectionException.class, () -> gate.getConnection());
+        assertEquals(2, gate.getActiveConnections());
+        assertEquals(1, gate.getTimeoutCount());
+        verify(dataSource, times(2)).getConnection();
+    }
+
+    @Test
+    void close_ShouldReleasePermitOnlyOnce() throws SQLException {
+        // Arrange
+        Connection first = gate.getConnection();
+
+        // Act
+        first.close();
+        first.close();
+
+        // Assert
+        assertEquals(0, gate.getActiveConnections());
+        verify(connection, times(2)).close();
+        gate.getConnection();
+        gate.getConnection();
+        assertThrows(SQLTransientConnectionException.class, () -> gate.getConnection());
+    }
+
+    @Test
+    void getConnection_WhenPoolFails_ShouldReleasePermit() throws SQLException {
+        // Arrange
+        when(dataSource.getConnection()).thenThrow(new SQLException("pool down"));
+
+        // Act & Assert
+        assertThrows(SQLException.class, () -> gate.getConnection());
+        assertEquals(0, gate.getActiveConnections());
+    }
+
+    @Test
+    void gatedConnection_ShouldDelegateOtherCalls() throws SQLException {
+        // Arrange
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.isClosed()).thenThrow(new SQLException("broken"));
+        Connection gated = gate.getConnection();
+
+        // Act & Assert
+        assertTrue(gated.getAutoCommit());
+        SQLException thrown = assertThrows(SQLException.class, gated::isClosed);
+        assertEquals("broken", thrown.getMessage());
+    }
+}